@@ -0,0 +1,94 @@
+package eventreminder.bench;
+
+import eventreminder.core.Event;
+import eventreminder.core.ReminderMetrics;
+import eventreminder.ui.EventListModel;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.DefaultListModel;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Switching the sidebar category: the category-indexed EventListModel versus
+ * the original clear-and-refill of a DefaultListModel. Each model has one
+ * listener counting notifications, standing in for the JList. Also times
+ * switching to a one-day agenda window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FilterBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private List<Event> events;
+    private EventListModel model;
+    private DefaultListModel<Event> legacyModel;
+    private final CountingListener listener = new CountingListener();
+    private boolean showAll;
+    private int day;
+
+    @Setup
+    public void setUp() {
+        events = SyntheticEvents.generate(size, 42);
+        model = new EventListModel(new ReminderMetrics("benchmark"));
+        model.addAll(events);
+        model.addListDataListener(listener);
+        legacyModel = new DefaultListModel<>();
+        legacyModel.addListDataListener(listener);
+    }
+
+    @Benchmark
+    public int indexedSwitch() {
+        showAll = !showAll;
+        model.showCategory(showAll ? "All" : "Work");
+        return model.getSize();
+    }
+
+    // A different day each time, so every call finds its window afresh
+    @Benchmark
+    public int agendaSwitch() {
+        day = (day + 1) % 365;
+        LocalDateTime from = SyntheticEvents.BASE_TIME.plusDays(day);
+        model.showAgenda(from, from.plusDays(1));
+        return model.getSize();
+    }
+
+    @Benchmark
+    public int legacyRefill() {
+        showAll = !showAll;
+        legacyModel.clear();
+        for (Event event : events) {
+            if (showAll || event.getCategory().equals("Work")) {
+                legacyModel.addElement(event);
+            }
+        }
+        return legacyModel.getSize();
+    }
+
+    static class CountingListener implements ListDataListener {
+        long notifications;
+
+        @Override
+        public void intervalAdded(ListDataEvent e) {
+            notifications++;
+        }
+
+        @Override
+        public void intervalRemoved(ListDataEvent e) {
+            notifications++;
+        }
+
+        @Override
+        public void contentsChanged(ListDataEvent e) {
+            notifications++;
+        }
+    }
+}
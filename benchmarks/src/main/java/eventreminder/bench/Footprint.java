@@ -0,0 +1,57 @@
+package eventreminder.bench;
+
+import eventreminder.core.ColumnarEventTable;
+import eventreminder.core.EventStore;
+import eventreminder.core.EventTable;
+import eventreminder.core.HashEventTable;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Retained heap (and direct memory) of an event store per table type. Not a
+ * JMH benchmark since it measures space, not time:
+ *
+ *     java -cp benchmarks/target/benchmarks.jar eventreminder.bench.Footprint [count]
+ */
+public final class Footprint {
+    private Footprint() {
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        measure("hash", count, HashEventTable::new);
+        measure("columnar", count, () -> new ColumnarEventTable(false));
+        measure("columnar, off-heap text", count, () -> new ColumnarEventTable(true));
+    }
+
+    private static void measure(String name, int count, Supplier<EventTable> table) {
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+        EventStore store = new EventStore(table.get());
+        store.load(SyntheticEvents.generate(count, 42));
+        long heap = usedHeap() - heapBefore;
+        long direct = usedDirect() - directBefore;
+        System.out.printf("%-24s %,d events: %,d bytes heap (%d per event), %,d bytes direct%n",
+            name, store.size(), heap, heap / count, direct);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long usedDirect() {
+        long used = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                used += pool.getMemoryUsed();
+            }
+        }
+        return used;
+    }
+}
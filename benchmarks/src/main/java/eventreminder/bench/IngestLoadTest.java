@@ -0,0 +1,161 @@
+package eventreminder.bench;
+
+import eventreminder.core.Event;
+import eventreminder.core.EventIngestor;
+import eventreminder.core.EventJournal;
+import eventreminder.core.EventScheduler;
+import eventreminder.core.EventStore;
+import eventreminder.core.IngestionServer;
+import eventreminder.core.LatencyHistogram;
+import eventreminder.core.ScheduleUpdater;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Load test for the ingestion endpoint over loopback. Concurrent clients post
+ * CSV batches for a fixed time and the sustained insert rate and request
+ * latency are reported. Without {@code --port} it hosts its own server over a
+ * journalled store with a scheduler attached, as the app has:
+ *
+ *     java -cp benchmarks/target/benchmarks.jar eventreminder.bench.IngestLoadTest \
+ *         [--port PORT [--tenant ID]] [--clients 16] [--batch 100] [--seconds 10]
+ */
+public final class IngestLoadTest {
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private IngestLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = -1;
+        String tenant = null;
+        int clients = 16;
+        int batch = 100;
+        int seconds = 10;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[i + 1]); break;
+                case "--tenant": tenant = args[i + 1]; break;
+                case "--clients": clients = Integer.parseInt(args[i + 1]); break;
+                case "--batch": batch = Integer.parseInt(args[i + 1]); break;
+                case "--seconds": seconds = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        Path journalDirectory = null;
+        EventJournal journal = null;
+        EventIngestor ingestor = null;
+        EventScheduler<Long> scheduler = null;
+        IngestionServer server = null;
+        if (port < 0) {
+            journalDirectory = Files.createTempDirectory("ingest-load-test");
+            EventStore store = new EventStore();
+            scheduler = new EventScheduler<>("load-test-scheduler", id -> { });
+            store.addListener(new ScheduleUpdater<>(scheduler, Long::valueOf));
+            journal = new EventJournal(journalDirectory, 1_000_000);
+            store.load(journal.load());
+            store.addListener(journal);
+            journal.start(store::snapshot);
+            scheduler.start();
+            ingestor = new EventIngestor(store, journal);
+            ingestor.start();
+            EventIngestor target = ingestor;
+            server = new IngestionServer(0, tenantId -> tenantId == null ? target : null);
+            server.start();
+            port = server.getPort();
+        }
+        URI uri = URI.create("http://localhost:" + port + (tenant == null ? "/events" : "/tenants/" + tenant + "/events"));
+
+        List<String> bodies = bodies(batch, 64);
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong inserted = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        int perRequest = batch;
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int first = c;
+                workers.execute(() -> {
+                    for (int n = first; System.nanoTime() < deadline; n++) {
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                            .header("Content-Type", "text/csv")
+                            .POST(HttpRequest.BodyPublishers.ofString(bodies.get(n % bodies.size())))
+                            .build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            latency.record((System.nanoTime() - sent) / 1000);
+                            if (response.statusCode() == 201) {
+                                inserted.addAndGet(perRequest);
+                            } else {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d clients, %d events per request, %.1f s%n", clients, batch, elapsed);
+        System.out.printf("%,d events inserted: %,.0f per second; %d failed requests%n",
+            inserted.get(), inserted.get() / elapsed, failures.get());
+        System.out.println("Request latency us: " + latency.snapshot());
+
+        if (server != null) {
+            server.stop();
+            ingestor.close();
+            journal.close(30, TimeUnit.SECONDS);
+            scheduler.stop();
+            try (Stream<Path> files = Files.walk(journalDirectory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    // A few distinct bodies of future events, reused round-robin
+    private static List<String> bodies(int batch, int count) {
+        List<Event> events = SyntheticEvents.generate(batch * count, 42);
+        LocalDateTime shift = LocalDateTime.now().plusYears(1);
+        long offsetDays = ChronoUnit.DAYS.between(SyntheticEvents.BASE_TIME, shift);
+        List<String> bodies = new ArrayList<>(count);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            body.append(event.getTitle()).append(',').append(event.getDescription()).append(',')
+                .append(event.getDateTime().plusDays(offsetDays).format(DATE_TIME)).append(',')
+                .append(event.getCategory()).append('\n');
+            if ((i + 1) % batch == 0) {
+                bodies.add(body.toString());
+                body.setLength(0);
+            }
+        }
+        return bodies;
+    }
+}
@@ -0,0 +1,99 @@
+package eventreminder.bench;
+
+import eventreminder.core.Event;
+import eventreminder.core.EventJournal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/** Journal write throughput with group commit, and startup load time from a snapshot. */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = "-Xms2g")
+public class JournalBenchmark {
+
+    /** Appends a batch of records and waits for them to be fsynced. */
+    @State(Scope.Benchmark)
+    public static class Append {
+        static final int BATCH = 1000;
+
+        Path directory;
+        EventJournal journal;
+        List<Event> events;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-append");
+            journal = new EventJournal(directory, Integer.MAX_VALUE);
+            journal.load();
+            journal.start(List::of);
+            events = SyntheticEvents.generate(BATCH, 42);
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            journal.close(10, TimeUnit.SECONDS);
+            deleteRecursively(directory);
+        }
+    }
+
+    /** A snapshot of {@code size} events written once per trial. */
+    @State(Scope.Benchmark)
+    public static class Snapshot {
+        @Param({"100000", "1000000"})
+        public int size;
+
+        Path directory;
+
+        @Setup
+        public void setUp() throws Exception {
+            directory = Files.createTempDirectory("journal-load");
+            List<Event> events = SyntheticEvents.generate(size, 42);
+            EventJournal journal = new EventJournal(directory, Integer.MAX_VALUE);
+            journal.load();
+            journal.start(() -> events);
+            for (Event event : events) {
+                journal.put(event);
+            }
+            // Closing compacts everything into a snapshot
+            journal.close(5, TimeUnit.MINUTES);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @OperationsPerInvocation(Append.BATCH)
+    public void appendBatchAndSync(Append state) throws IOException, InterruptedException {
+        for (Event event : state.events) {
+            state.journal.put(event);
+        }
+        state.journal.flush();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public List<Event> loadSnapshot(Snapshot state) throws IOException {
+        return new EventJournal(state.directory, Integer.MAX_VALUE).load();
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package eventreminder.bench;
+
+import eventreminder.core.Event;
+import eventreminder.ui.EventListRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.JList;
+import java.awt.Component;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-cell cost of EventListRenderer: configuring the renderer for an event
+ * and laying the row out, as JList does for every visible row on repaint.
+ * Run with {@code -prof gc} to see the allocation rate per cell.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RendererBenchmark {
+    // About one screenful of rows, so the date cache stays warm as it would while repainting
+    private static final int VISIBLE_ROWS = 12;
+
+    private final JList<Event> list = new JList<>();
+    private final EventListRenderer renderer = new EventListRenderer();
+    private List<Event> rows;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rows = SyntheticEvents.generate(VISIBLE_ROWS, 42);
+    }
+
+    @Benchmark
+    public Component renderCell() {
+        int index = next;
+        next = (next + 1) % VISIBLE_ROWS;
+        Component cell = renderer.getListCellRendererComponent(list, rows.get(index), index, index == 3, false);
+        cell.setBounds(0, 0, 700, 80);
+        cell.validate();
+        return cell;
+    }
+}
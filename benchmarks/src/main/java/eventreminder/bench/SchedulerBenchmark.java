@@ -0,0 +1,68 @@
+package eventreminder.bench;
+
+import eventreminder.core.Event;
+import eventreminder.core.EventScheduler;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of finding due reminders: the original once-a-minute scan over every
+ * event versus firing one reminder from the due-time heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SchedulerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private List<Event> events;
+    private EventScheduler<Long> scheduler;
+    private LocalDateTime now;
+    private long nowMillis;
+
+    @Setup
+    public void setUp() {
+        events = SyntheticEvents.generate(size, 42);
+        // Never started: the benchmark drives it through pollDue
+        scheduler = new EventScheduler<>("benchmark-scheduler", id -> { });
+        for (Event event : events) {
+            scheduler.schedule(event.getId(), event.getDateTime());
+        }
+        now = SyntheticEvents.BASE_TIME.minusDays(1);
+        nowMillis = now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /** The pre-heap TimerTask body: walk every event each tick. */
+    @Benchmark
+    public int legacyMinuteScan() {
+        int due = 0;
+        for (Event event : events) {
+            if (event.getDateTime().isBefore(now.plusMinutes(1)) && !event.isNotified()) {
+                due++;
+            }
+        }
+        return due;
+    }
+
+    /** Schedule one reminder that is already due and fire it from the heap. */
+    @Benchmark
+    public Long heapScheduleAndFire() {
+        scheduler.schedule(-1L, now);
+        return scheduler.pollDue(nowMillis);
+    }
+
+    /** Move a pending reminder to a new time, as an edit does. */
+    @Benchmark
+    public void heapReschedule() {
+        Event event = events.get((int) (System.nanoTime() % size));
+        scheduler.schedule(event.getId(), event.getDateTime().plusMinutes(1));
+    }
+}
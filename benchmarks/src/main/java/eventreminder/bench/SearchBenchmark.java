@@ -0,0 +1,66 @@
+package eventreminder.bench;
+
+import eventreminder.core.Event;
+import eventreminder.core.EventStore;
+import eventreminder.core.SearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search-as-you-type queries against the inverted index, and the cost of
+ * keeping it current when an event is re-worded. The synthetic calendars
+ * draw on a 20-word vocabulary, so every word matches a large share of the
+ * events; real calendars give far smaller posting lists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xms2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SearchBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Indexed {
+        @Param({"100000", "1000000"})
+        public int size;
+
+        EventStore store;
+        SearchIndex index;
+        List<Event> events;
+        int next;
+
+        @Setup
+        public void setUp() {
+            events = SyntheticEvents.generate(size, 42);
+            index = new SearchIndex();
+            store = new EventStore();
+            store.addListener(index);
+            store.load(events);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Query {
+        @Param({"dent", "dentist rev", "dentist review lunch"})
+        public String text;
+    }
+
+    @Benchmark
+    public long[] search(Indexed state, Query query) {
+        return state.index.search(query.text);
+    }
+
+    /** Adds or drops one word of an event's title. */
+    @Benchmark
+    public Event reword(Indexed state) {
+        Event event = state.events.get(state.next++ % state.size);
+        return state.store.update(event.getId(), current -> {
+            String title = current.getTitle().endsWith(" urgent")
+                ? current.getTitle().substring(0, current.getTitle().length() - 7)
+                : current.getTitle() + " urgent";
+            return current.withDetails(title, current.getDescription(), current.getDateTime(), current.getCategory());
+        });
+    }
+}
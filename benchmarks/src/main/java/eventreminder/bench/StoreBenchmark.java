@@ -0,0 +1,60 @@
+package eventreminder.bench;
+
+import eventreminder.core.ColumnarEventTable;
+import eventreminder.core.Event;
+import eventreminder.core.EventScheduler;
+import eventreminder.core.EventStore;
+import eventreminder.core.HashEventTable;
+import eventreminder.core.ScheduleUpdater;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Add, edit and delete throughput of the event store with the scheduler
+ * attached, as in the app. The journal is measured separately in
+ * {@link JournalBenchmark}. Run against both table types; their memory
+ * footprint is compared by {@link Footprint}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StoreBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"hash", "columnar"})
+    public String table;
+
+    private EventStore store;
+    private List<Event> events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        events = SyntheticEvents.generate(size, 42);
+        store = new EventStore(table.equals("columnar") ? new ColumnarEventTable() : new HashEventTable());
+        store.addListener(new ScheduleUpdater<>(new EventScheduler<Long>("benchmark-scheduler", id -> { }),
+            Long::valueOf));
+        store.load(events);
+    }
+
+    @Benchmark
+    public Event edit() {
+        Event event = events.get(next++ % size);
+        return store.update(event.getId(), current ->
+            current.withDetails(current.getTitle(), current.getDescription(),
+                current.getDateTime().plusMinutes(1), current.getCategory()));
+    }
+
+    @Benchmark
+    public Event addThenDelete() {
+        Event added = store.add("Benchmark event", "Added and deleted again",
+            SyntheticEvents.BASE_TIME.plusDays(1), "Work");
+        return store.remove(added.getId());
+    }
+}
@@ -0,0 +1,53 @@
+package eventreminder.bench;
+
+import eventreminder.core.Event;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible synthetic calendars. The same count and seed always give the
+ * same events, spread over the year after {@link #BASE_TIME}, so results
+ * stay comparable between runs and machines.
+ */
+public final class SyntheticEvents {
+    public static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 1, 1, 0, 0);
+    public static final String[] CATEGORIES = {"Birthday", "Party", "Homework", "Work", "Meeting", "Other"};
+
+    private static final String[] WORDS = {
+        "dentist", "standup", "review", "birthday", "party", "homework", "deadline", "lunch",
+        "planning", "retro", "gym", "call", "report", "doctor", "payment", "flight", "dinner",
+        "interview", "exam", "meeting"
+    };
+    private static final int MINUTES_PER_YEAR = 365 * 24 * 60;
+
+    private SyntheticEvents() {
+    }
+
+    public static List<Event> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            events.add(new Event(i,
+                words(random, 2 + random.nextInt(3)),
+                words(random, 4 + random.nextInt(8)),
+                BASE_TIME.plusMinutes(random.nextInt(MINUTES_PER_YEAR)),
+                CATEGORIES[random.nextInt(CATEGORIES.length)],
+                random.nextInt(10) == 0));
+        }
+        return events;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
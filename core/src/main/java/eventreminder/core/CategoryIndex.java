@@ -0,0 +1,351 @@
+package eventreminder.core;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-category views of the events, kept current as events are added, edited
+ * and deleted, so switching the visible category is just picking a view.
+ * Every view is in time order: each is a sorted array, lookups and inserts
+ * are binary searches, and an edit that moves an event only shifts the
+ * events between its old and new places. A time range such as the next 24
+ * hours is a window onto the full view found by two binary searches, with
+ * nothing copied.
+ *
+ * Not thread-safe: the list model owns it and only touches it on the EDT.
+ */
+public class CategoryIndex {
+    public static final String ALL = "All";
+
+    /** A list of events in time order (then by id for events at the same time). */
+    public interface View {
+        int size();
+
+        Event get(int index);
+
+        /** Position of this version of the event, or -1 if it is not in the view. */
+        int indexOf(Event event);
+    }
+
+    // The version each view holds, so edits and deletes can find the old position
+    private final Map<Long, Event> events = new HashMap<>();
+    private final SortedView all = new SortedView();
+    private final Map<String, SortedView> categories = new HashMap<>();
+    private SortedView selection;
+    private View selectionSource;
+    private long[] selectionIds;
+
+    public View view(String category) {
+        return sorted(category);
+    }
+
+    /**
+     * The events due from {@code from} (inclusive) to {@code to} (exclusive).
+     * The window stays current as events are added, moved and deleted.
+     */
+    public View range(LocalDateTime from, LocalDateTime to) {
+        return new RangeView(from, to);
+    }
+
+    /**
+     * A view of the events in {@code source} whose ids are among {@code ids}
+     * (sorted ascending), such as search results. It follows changes to those
+     * events until the next select or clearSelection; other events added
+     * later do not appear in it.
+     */
+    public View select(View source, long[] ids) {
+        SortedView selected = new SortedView();
+        List<Event> matches = new ArrayList<>();
+        for (long id : ids) {
+            Event event = events.get(id);
+            if (event != null && source.indexOf(event) >= 0) {
+                matches.add(event);
+            }
+        }
+        selected.insertAll(matches);
+        selection = selected;
+        selectionSource = source;
+        selectionIds = ids;
+        return selected;
+    }
+
+    public void clearSelection() {
+        selection = null;
+        selectionSource = null;
+        selectionIds = null;
+    }
+
+    public void add(Event event) {
+        Event previous = events.put(event.getId(), event);
+        if (previous != null) {
+            unindex(previous);
+        }
+        all.insert(event);
+        sorted(event.getCategory()).insert(event);
+        updateSelection(previous, event);
+    }
+
+    /** Adds a batch, merging it into each view in one pass rather than inserting one by one. */
+    public void addAll(List<Event> batch) {
+        List<Event> added = new ArrayList<>(batch.size());
+        Map<String, List<Event>> byCategory = new LinkedHashMap<>();
+        for (Event event : batch) {
+            Event previous = events.put(event.getId(), event);
+            if (previous != null) {
+                unindex(previous);
+                updateSelection(previous, null);
+            }
+            added.add(event);
+            byCategory.computeIfAbsent(event.getCategory(), c -> new ArrayList<>()).add(event);
+        }
+        all.insertAll(added);
+        for (Map.Entry<String, List<Event>> entry : byCategory.entrySet()) {
+            sorted(entry.getKey()).insertAll(entry.getValue());
+        }
+        if (selection != null) {
+            for (Event event : added) {
+                updateSelection(null, event);
+            }
+        }
+    }
+
+    public void remove(Event event) {
+        Event previous = events.remove(event.getId());
+        if (previous != null) {
+            unindex(previous);
+            updateSelection(previous, null);
+        }
+    }
+
+    public void update(Event previous, Event current) {
+        Event indexed = events.put(current.getId(), current);
+        if (indexed == null) {
+            indexed = previous;
+        }
+        all.move(indexed, current);
+        if (indexed.getCategory().equals(current.getCategory())) {
+            sorted(current.getCategory()).move(indexed, current);
+        } else {
+            sorted(indexed.getCategory()).remove(indexed);
+            sorted(current.getCategory()).insert(current);
+        }
+        updateSelection(indexed, current);
+    }
+
+    private SortedView sorted(String category) {
+        if (ALL.equals(category)) {
+            return all;
+        }
+        return categories.computeIfAbsent(category, c -> new SortedView());
+    }
+
+    private void unindex(Event event) {
+        all.remove(event);
+        sorted(event.getCategory()).remove(event);
+    }
+
+    // Runs after the source views are up to date, so the source decides
+    // whether the new version still belongs in the selection
+    private void updateSelection(Event previous, Event current) {
+        long id = current != null ? current.getId() : previous.getId();
+        if (selection == null || Arrays.binarySearch(selectionIds, id) < 0) {
+            return;
+        }
+        if (previous != null) {
+            selection.remove(previous);
+        }
+        if (current != null && selectionSource.indexOf(current) >= 0) {
+            selection.insert(current);
+        }
+    }
+
+    private static int compare(Event a, Event b) {
+        int byTime = a.getDateTime().compareTo(b.getDateTime());
+        return byTime != 0 ? byTime : Long.compare(a.getId(), b.getId());
+    }
+
+    private static class SortedView implements View {
+        private Event[] events = new Event[16];
+        private int size;
+        // Bumped on every change so range windows know to find their bounds again
+        private int modifications;
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Event get(int index) {
+            return events[index];
+        }
+
+        @Override
+        public int indexOf(Event event) {
+            int position = search(event);
+            return position >= 0 ? position : -1;
+        }
+
+        void insert(Event event) {
+            int position = search(event);
+            modifications++;
+            if (position >= 0) {
+                events[position] = event;
+                return;
+            }
+            position = -position - 1;
+            if (size == events.length) {
+                events = Arrays.copyOf(events, size * 2);
+            }
+            System.arraycopy(events, position, events, position + 1, size - position);
+            events[position] = event;
+            size++;
+        }
+
+        void remove(Event event) {
+            int position = search(event);
+            if (position < 0) {
+                return;
+            }
+            modifications++;
+            System.arraycopy(events, position + 1, events, position, size - position - 1);
+            events[--size] = null;
+        }
+
+        // Replaces previous with current, shifting only the events in between
+        void move(Event previous, Event current) {
+            int from = search(previous);
+            if (from < 0) {
+                insert(current);
+                return;
+            }
+            modifications++;
+            int to = search(current);
+            if (to >= 0 || from == -to - 1 || from == -to - 2) {
+                // Stays put: same time, or no other event falls between old and new
+                events[from] = current;
+                return;
+            }
+            to = -to - 1;
+            if (to > from) {
+                to--;
+                System.arraycopy(events, from + 1, events, from, to - from);
+            } else {
+                System.arraycopy(events, to, events, to + 1, from - to);
+            }
+            events[to] = current;
+        }
+
+        // Merges the batch in with one pass over the existing events
+        void insertAll(List<Event> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Event[] added = batch.toArray(new Event[0]);
+            Arrays.sort(added, CategoryIndex::compare);
+            modifications++;
+            Event[] merged = new Event[Math.max(events.length, size + added.length)];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < size && j < added.length) {
+                merged[k++] = compare(events[i], added[j]) <= 0 ? events[i++] : added[j++];
+            }
+            while (i < size) {
+                merged[k++] = events[i++];
+            }
+            while (j < added.length) {
+                merged[k++] = added[j++];
+            }
+            events = merged;
+            size = k;
+        }
+
+        // Index of the first event due at or after time
+        int lowerBound(LocalDateTime time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (events[mid].getDateTime().isBefore(time)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Same contract as Arrays.binarySearch
+        private int search(Event event) {
+            if (size > 0 && compare(events[size - 1], event) < 0) {
+                return -size - 1;
+            }
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int order = compare(events[mid], event);
+                if (order < 0) {
+                    low = mid + 1;
+                } else if (order > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+    }
+
+    private class RangeView implements View {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private int start;
+        private int end;
+        private int seenModifications = -1;
+
+        RangeView(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public int size() {
+            bounds();
+            return end - start;
+        }
+
+        @Override
+        public Event get(int index) {
+            bounds();
+            return all.get(start + index);
+        }
+
+        @Override
+        public int indexOf(Event event) {
+            if (event.getDateTime().isBefore(from) || !event.getDateTime().isBefore(to)) {
+                return -1;
+            }
+            int position = all.indexOf(event);
+            if (position < 0) {
+                return -1;
+            }
+            bounds();
+            return position - start;
+        }
+
+        private void bounds() {
+            if (seenModifications != all.modifications) {
+                start = all.lowerBound(from);
+                end = Math.max(start, all.lowerBound(to));
+                seenModifications = all.modifications;
+            }
+        }
+    }
+}
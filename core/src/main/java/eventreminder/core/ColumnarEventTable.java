@@ -0,0 +1,359 @@
+package eventreminder.core;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Events packed into primitive columns, one slot per event: the due time as
+ * epoch minutes, the category as a byte code, notified as a bit, and title
+ * and description as handles into a deduplicating {@link TextPool} that can
+ * be kept off the heap. An event costs a few dozen bytes instead of the
+ * several hundred its objects take, which matters to a daemon holding many
+ * tenants' calendars.
+ *
+ * Events are not kept as objects: {@link #get} and iteration build a fresh
+ * Event from the columns on every call. Times are stored to the minute, so
+ * {@link #normalize} drops seconds, as the app's own time fields do.
+ *
+ * One read-write lock guards the columns. Reads share it; writes, which are
+ * rare next to reminder checks, take it exclusively.
+ */
+public class ColumnarEventTable implements EventTable {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int ITERATION_BATCH = 256;
+    // Category code meaning "look in overflowCategories"
+    private static final int OVERFLOW = 255;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TextPool text;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] minutes = new long[INITIAL_CAPACITY];
+    private int[] titles = new int[INITIAL_CAPACITY];
+    private int[] descriptions = new int[INITIAL_CAPACITY];
+    private byte[] categories = new byte[INITIAL_CAPACITY];
+    private final BitSet notified = new BitSet();
+    private final BitSet occupied = new BitSet();
+    // Allocated when the first repeating event arrives
+    private Recurrence[] recurrences;
+    private int slotsUsed;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    private final List<String> categoryNames = new ArrayList<>();
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+    private final Map<Integer, String> overflowCategories = new HashMap<>();
+
+    // id -> slot, open-addressed; slot + 1 in slotIndex, 0 if empty
+    private long[] keys = new long[INITIAL_CAPACITY * 2];
+    private int[] slotIndex = new int[INITIAL_CAPACITY * 2];
+    private int size;
+
+    public ColumnarEventTable() {
+        this(false);
+    }
+
+    /** With {@code offHeapText}, titles and descriptions are kept in direct memory. */
+    public ColumnarEventTable(boolean offHeapText) {
+        this.text = new TextPool(offHeapText);
+    }
+
+    @Override
+    public Event get(long id) {
+        lock.readLock().lock();
+        try {
+            int slot = find(id);
+            return slot < 0 ? null : read(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(Event event) {
+        lock.writeLock().lock();
+        try {
+            store(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Event compute(long id, UnaryOperator<Event> remapping) {
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            Event current = slot < 0 ? null : read(slot);
+            Event next = remapping.apply(current);
+            if (next == current) {
+                return current;
+            }
+            if (next == null) {
+                delete(id, slot);
+                return null;
+            }
+            store(next);
+            return next;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Event normalize(Event event) {
+        LocalDateTime dateTime = event.getDateTime();
+        LocalDateTime truncated = dateTime.truncatedTo(ChronoUnit.MINUTES);
+        // The series too, or firing would land back on a time with seconds
+        // that truncates to the same stored minute
+        Recurrence recurrence = event.getRecurrence();
+        Recurrence truncatedRecurrence = recurrence == null ? null : recurrence.truncatedTo(ChronoUnit.MINUTES);
+        if (truncated.equals(dateTime) && truncatedRecurrence == recurrence) {
+            return event;
+        }
+        return new Event(event.getId(), event.getTitle(), event.getDescription(), truncated,
+            event.getCategory(), event.isNotified(), truncatedRecurrence);
+    }
+
+    /** Distinct titles and descriptions held, and their UTF-8 size; for diagnostics. */
+    public String textStats() {
+        lock.readLock().lock();
+        try {
+            return text.size() + " distinct strings, " + text.textBytes() + " bytes";
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walks the slots a batch at a time, releasing the lock between batches
+     * so a long iteration doesn't hold up writers.
+     */
+    @Override
+    public Iterator<Event> iterator() {
+        return new Iterator<Event>() {
+            private final List<Event> batch = new ArrayList<>(ITERATION_BATCH);
+            private int position;
+            private int nextSlot;
+
+            @Override
+            public boolean hasNext() {
+                if (position < batch.size()) {
+                    return true;
+                }
+                batch.clear();
+                position = 0;
+                lock.readLock().lock();
+                try {
+                    while (batch.size() < ITERATION_BATCH) {
+                        int slot = occupied.nextSetBit(nextSlot);
+                        if (slot < 0) {
+                            nextSlot = Integer.MAX_VALUE;
+                            break;
+                        }
+                        batch.add(read(slot));
+                        nextSlot = slot + 1;
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                return !batch.isEmpty();
+            }
+
+            @Override
+            public Event next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.get(position++);
+            }
+        };
+    }
+
+    private Event read(int slot) {
+        return new Event(ids[slot], text.get(titles[slot]), text.get(descriptions[slot]),
+            LocalDateTime.ofEpochSecond(minutes[slot] * 60, 0, ZoneOffset.UTC), category(slot),
+            notified.get(slot), recurrences == null ? null : recurrences[slot]);
+    }
+
+    private void store(Event event) {
+        event = normalize(event);
+        int slot = find(event.getId());
+        int oldTitle = TextPool.NONE;
+        int oldDescription = TextPool.NONE;
+        if (slot < 0) {
+            slot = allocateSlot();
+            ids[slot] = event.getId();
+            occupied.set(slot);
+            index(event.getId(), slot);
+        } else {
+            oldTitle = titles[slot];
+            oldDescription = descriptions[slot];
+            overflowCategories.remove(slot);
+        }
+        // Interned before the old text is released, so an unchanged title
+        // keeps its handle instead of being freed and copied in again
+        titles[slot] = text.intern(event.getTitle());
+        descriptions[slot] = text.intern(event.getDescription());
+        text.release(oldTitle);
+        text.release(oldDescription);
+        minutes[slot] = event.getDateTime().toEpochSecond(ZoneOffset.UTC) / 60;
+        setCategory(slot, event.getCategory());
+        notified.set(slot, event.isNotified());
+        if (event.getRecurrence() != null && recurrences == null) {
+            recurrences = new Recurrence[ids.length];
+        }
+        if (recurrences != null) {
+            recurrences[slot] = event.getRecurrence();
+        }
+    }
+
+    private void delete(long id, int slot) {
+        clear(slot);
+        occupied.clear(slot);
+        notified.clear(slot);
+        unindex(id);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    // Drops the slot's references so its text can be reclaimed
+    private void clear(int slot) {
+        text.release(titles[slot]);
+        text.release(descriptions[slot]);
+        titles[slot] = TextPool.NONE;
+        descriptions[slot] = TextPool.NONE;
+        overflowCategories.remove(slot);
+        if (recurrences != null) {
+            recurrences[slot] = null;
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotsUsed == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            minutes = Arrays.copyOf(minutes, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            if (recurrences != null) {
+                recurrences = Arrays.copyOf(recurrences, capacity);
+            }
+        }
+        return slotsUsed++;
+    }
+
+    // Categories are a short list in practice; the first 255 get a byte code
+    private void setCategory(int slot, String category) {
+        Integer code = categoryCodes.get(category);
+        if (code == null && categoryNames.size() < OVERFLOW) {
+            code = categoryNames.size();
+            categoryNames.add(category);
+            categoryCodes.put(category, code);
+        }
+        if (code == null) {
+            categories[slot] = (byte) OVERFLOW;
+            overflowCategories.put(slot, category);
+        } else {
+            categories[slot] = code.byteValue();
+        }
+    }
+
+    private String category(int slot) {
+        int code = categories[slot] & 0xFF;
+        return code == OVERFLOW ? overflowCategories.get(slot) : categoryNames.get(code);
+    }
+
+    private int find(long id) {
+        int mask = keys.length - 1;
+        for (int i = hash(id) & mask; slotIndex[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == id) {
+                return slotIndex[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    private void index(long id, int slot) {
+        if ((size + 1) * 2 > keys.length) {
+            resizeIndex(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = hash(id) & mask;
+        while (slotIndex[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = id;
+        slotIndex[i] = slot + 1;
+        size++;
+    }
+
+    private void unindex(long id) {
+        int mask = keys.length - 1;
+        int hole = hash(id) & mask;
+        while (keys[hole] != id || slotIndex[hole] == 0) {
+            hole = (hole + 1) & mask;
+        }
+        // Backward-shift deletion, as in TextPool
+        for (int next = (hole + 1) & mask; slotIndex[next] != 0; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                slotIndex[hole] = slotIndex[next];
+                hole = next;
+            }
+        }
+        slotIndex[hole] = 0;
+        size--;
+    }
+
+    private void resizeIndex(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldSlots = slotIndex;
+        keys = new long[capacity];
+        slotIndex = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSlots[i] != 0) {
+                int j = hash(oldKeys[i]) & mask;
+                while (slotIndex[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                slotIndex[j] = oldSlots[i];
+            }
+        }
+    }
+
+    private static int hash(long id) {
+        long spread = id * 0x9E3779B97F4A7C15L;
+        return (int) (spread ^ (spread >>> 32));
+    }
+}
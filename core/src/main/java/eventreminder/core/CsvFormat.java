@@ -0,0 +1,203 @@
+package eventreminder.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comma-separated values as in RFC 4180, one event per record:
+ * {@code title,description,date,category,repeat,skipped}. Dates use the
+ * app's {@code yyyy-MM-dd HH:mm}; {@code repeat} is an iCalendar RRULE value
+ * such as {@code FREQ=WEEKLY;INTERVAL=2} and {@code skipped} lists excluded
+ * occurrences separated by semicolons. A header row may give the columns in
+ * any order; without one this order is assumed. Only title and date are
+ * required.
+ */
+class CsvFormat extends EventFormat {
+    static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String[] COLUMNS = {"title", "description", "date", "category", "repeat", "skipped"};
+
+    private final StringBuilder record = new StringBuilder();
+    private boolean quoted;
+    private boolean firstRecord = true;
+    // Column positions of COLUMNS, -1 if absent; fixed before any record is parsed
+    private int[] positions = {0, 1, 2, 3, 4, 5};
+
+    // A quoted field may contain line breaks, so a record ends at the first
+    // line break outside quotes
+    @Override
+    String nextRecord(String line) {
+        if (quoted) {
+            record.append('\n');
+        }
+        record.append(line);
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        String complete = record.toString();
+        record.setLength(0);
+        if (complete.isBlank()) {
+            return null;
+        }
+        if (firstRecord) {
+            firstRecord = false;
+            if (readHeader(complete)) {
+                return null;
+            }
+        }
+        return complete;
+    }
+
+    @Override
+    String lastRecord() {
+        if (record.length() == 0) {
+            return null;
+        }
+        // An unterminated quote runs to the end of the file
+        String complete = record.toString();
+        record.setLength(0);
+        return complete;
+    }
+
+    private boolean readHeader(String first) {
+        List<String> names = split(first);
+        boolean header = false;
+        for (String name : names) {
+            header |= name.trim().equalsIgnoreCase("title") || name.trim().equalsIgnoreCase("date");
+        }
+        if (!header) {
+            return false;
+        }
+        int[] found = new int[COLUMNS.length];
+        for (int column = 0; column < COLUMNS.length; column++) {
+            found[column] = -1;
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).trim().equalsIgnoreCase(COLUMNS[column])) {
+                    found[column] = i;
+                }
+            }
+        }
+        if (found[0] < 0 || found[2] < 0) {
+            throw new IllegalArgumentException("CSV header needs title and date columns: " + first);
+        }
+        positions = found;
+        return true;
+    }
+
+    @Override
+    Event parse(String line, LocalDateTime now) {
+        List<String> fields = split(line);
+        String title = field(fields, 0);
+        String description = field(fields, 1);
+        String date = field(fields, 2).trim();
+        String category = field(fields, 3).trim();
+        String repeat = field(fields, 4).trim();
+        String skipped = field(fields, 5).trim();
+        if (date.isEmpty()) {
+            throw new IllegalArgumentException("Missing date");
+        }
+        LocalDateTime start = LocalDateTime.parse(date, DATE_TIME);
+        Recurrence recurrence = null;
+        if (!repeat.isEmpty()) {
+            List<LocalDateTime> exceptions = new ArrayList<>();
+            if (!skipped.isEmpty()) {
+                for (String value : skipped.split(";")) {
+                    exceptions.add(LocalDateTime.parse(value.trim(), DATE_TIME));
+                }
+            }
+            recurrence = IcsFormat.parseRule(repeat, start, exceptions);
+        }
+        return armed(title, description, start, category.isEmpty() ? "Other" : category, recurrence, now);
+    }
+
+    @Override
+    void writeHeader(Writer out) throws IOException {
+        out.write(String.join(",", COLUMNS));
+        out.write("\r\n");
+    }
+
+    @Override
+    void write(Writer out, Event event) throws IOException {
+        writeField(out, event.getTitle());
+        out.write(',');
+        writeField(out, event.getDescription());
+        out.write(',');
+        out.write(start(event).format(DATE_TIME));
+        out.write(',');
+        writeField(out, event.getCategory());
+        Recurrence recurrence = event.getRecurrence();
+        if (recurrence != null) {
+            out.write(',');
+            out.write(IcsFormat.formatRule(recurrence));
+            out.write(',');
+            boolean first = true;
+            for (LocalDateTime exception : recurrence.getExceptions()) {
+                if (!first) {
+                    out.write(';');
+                }
+                out.write(exception.format(DATE_TIME));
+                first = false;
+            }
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    void writeFooter(Writer out) {
+    }
+
+    private String field(List<String> fields, int column) {
+        int position = positions[column];
+        return position >= 0 && position < fields.size() ? fields.get(position) : "";
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    inQuotes = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
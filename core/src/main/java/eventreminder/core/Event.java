@@ -0,0 +1,118 @@
+package eventreminder.core;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+/**
+ * An immutable version of a reminder. Edits produce a new instance with the
+ * same id, so an Event can be handed between the EDT, the scheduler and the
+ * journal writer without copying or locking.
+ *
+ * A repeating event is one Event for the whole series: {@code dateTime} is its
+ * next pending occurrence, and firing moves it on to the one after.
+ */
+public final class Event {
+    private final long id;
+    private final String title;
+    private final String description;
+    private final LocalDateTime dateTime;
+    private final String category;
+    private final boolean notified;
+    private final Recurrence recurrence;
+
+    public Event(long id, String title, String description, LocalDateTime dateTime, String category) {
+        this(id, title, description, dateTime, category, false);
+    }
+
+    public Event(long id, String title, String description, LocalDateTime dateTime, String category,
+            boolean notified) {
+        this(id, title, description, dateTime, category, notified, null);
+    }
+
+    public Event(long id, String title, String description, LocalDateTime dateTime, String category,
+            boolean notified, Recurrence recurrence) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.dateTime = dateTime;
+        this.category = category;
+        this.notified = notified;
+        this.recurrence = recurrence;
+    }
+
+    public long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public LocalDateTime getDateTime() { return dateTime; }
+    public String getCategory() { return category; }
+    public boolean isNotified() { return notified; }
+    /** The repeat rule, or null for a one-off event. */
+    public Recurrence getRecurrence() { return recurrence; }
+
+    /**
+     * Returns an edited copy; editing re-arms the reminder. A series moved to a
+     * new time carries on from there with what was left of it.
+     */
+    public Event withDetails(String title, String description, LocalDateTime dateTime, String category) {
+        return withDetails(title, description, dateTime, category,
+            recurrence == null || dateTime.equals(this.dateTime) ? recurrence
+                : recurrence.restartedAt(this.dateTime, dateTime));
+    }
+
+    public Event withDetails(String title, String description, LocalDateTime dateTime, String category,
+            Recurrence recurrence) {
+        return new Event(id, title, description, dateTime, category, false, recurrence);
+    }
+
+    Event withId(long id) {
+        return new Event(id, title, description, dateTime, category, notified, recurrence);
+    }
+
+    public Event withNotified(boolean notified) {
+        return new Event(id, title, description, dateTime, category, notified, recurrence);
+    }
+
+    /**
+     * The version after the pending occurrence has fired at {@code now}: a
+     * series moves on to its first occurrence after now (missed ones are not
+     * replayed), anything else is marked notified.
+     */
+    public Event advancePast(LocalDateTime now) {
+        LocalDateTime next = recurrence == null ? null : recurrence.nextAfter(now);
+        if (next == null) {
+            return withNotified(true);
+        }
+        return new Event(id, title, description, next, category, false, recurrence);
+    }
+
+    /** Drops the pending occurrence of a series, which moves on to the next one. */
+    public Event skipOccurrence() {
+        if (recurrence == null || notified) {
+            return this;
+        }
+        Recurrence skipped = recurrence.withException(dateTime);
+        LocalDateTime next = skipped.nextAfter(dateTime);
+        return new Event(id, title, description, next == null ? dateTime : next, category, next == null, skipped);
+    }
+
+    /** True if the two versions differ at most in their notified flag. */
+    public boolean hasSameDetails(Event other) {
+        return id == other.id
+            && Objects.equals(title, other.title)
+            && Objects.equals(description, other.description)
+            && Objects.equals(dateTime, other.dateTime)
+            && Objects.equals(category, other.category)
+            && Objects.equals(recurrence, other.recurrence);
+    }
+
+    /** True if both are the same version of the same event, whether or not the same object. */
+    boolean isSameVersion(Event other) {
+        return notified == other.notified && hasSameDetails(other);
+    }
+
+    @Override
+    public String toString() {
+        return title + " - " + dateTime.format(DateTimeFormatter.ofPattern("MMM dd, HH:mm"));
+    }
+}
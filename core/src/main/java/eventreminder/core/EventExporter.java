@@ -0,0 +1,39 @@
+package eventreminder.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes a store's events to an iCalendar (.ics) or CSV file. Events are
+ * streamed from the live store straight into a buffered writer, so nothing
+ * the size of the whole document is ever built. The file is written under a
+ * temporary name and moved into place when complete.
+ */
+public final class EventExporter {
+    private EventExporter() {
+    }
+
+    /** Exports every event in {@code store} in the format {@code file}'s extension names; returns how many. */
+    public static int export(EventStore store, Path file) throws IOException {
+        EventFormat format = EventFormat.forFile(file);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int count = 0;
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            format.writeHeader(out);
+            for (Event event : store.events()) {
+                format.write(out, event);
+                count++;
+            }
+            format.writeFooter(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+}
@@ -0,0 +1,72 @@
+package eventreminder.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * A text file format for importing and exporting events. Reading is split in
+ * two so that parsing can run in parallel: {@link #nextRecord} is fed the
+ * file's lines in order on one thread and hands back each complete record,
+ * and {@link #parse} turns a record into an event on any thread.
+ *
+ * An instance holds the state of one import or export and is not reused.
+ */
+abstract class EventFormat {
+
+    static EventFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ics") || name.endsWith(".ical") || name.endsWith(".icalendar")) {
+            return new IcsFormat();
+        }
+        if (name.endsWith(".csv")) {
+            return new CsvFormat();
+        }
+        throw new IllegalArgumentException("Unsupported file type: " + file.getFileName()
+            + " (expected .ics or .csv)");
+    }
+
+    /** Takes the next line of the file; returns a record once one is complete, otherwise null. */
+    abstract String nextRecord(String line);
+
+    /** Called at the end of the file; returns any record still open, or null. */
+    abstract String lastRecord();
+
+    /**
+     * Parses one record into an event with id 0. Called concurrently from
+     * several threads. Throws IllegalArgumentException or DateTimeException
+     * for a malformed record.
+     */
+    abstract Event parse(String record, LocalDateTime now);
+
+    abstract void writeHeader(Writer out) throws IOException;
+
+    abstract void write(Writer out, Event event) throws IOException;
+
+    abstract void writeFooter(Writer out) throws IOException;
+
+    /**
+     * Arms an imported event the way the app would have: one-offs already in
+     * the past count as notified rather than all firing at once, and a series
+     * that started in the past waits for its next occurrence.
+     */
+    static Event armed(String title, String description, LocalDateTime start, String category,
+            Recurrence recurrence, LocalDateTime now) {
+        if (recurrence == null) {
+            return new Event(0, title, description, start, category, start.isBefore(now), null);
+        }
+        LocalDateTime first = recurrence.first();
+        LocalDateTime pending = first != null && !first.isBefore(now) ? first : recurrence.nextAfter(now);
+        if (pending == null) {
+            return new Event(0, title, description, start, category, true, recurrence);
+        }
+        return new Event(0, title, description, pending, category, false, recurrence);
+    }
+
+    /** The time an event's series (or the event itself) starts, which is what gets exported. */
+    static LocalDateTime start(Event event) {
+        return event.getRecurrence() == null ? event.getDateTime() : event.getRecurrence().getStart();
+    }
+}
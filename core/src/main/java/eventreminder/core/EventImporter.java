@@ -0,0 +1,189 @@
+package eventreminder.core;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams events from an iCalendar (.ics) or CSV file into a store.
+ *
+ * One thread reads the file and cuts it into chunks of whole records; the
+ * chunks are parsed in parallel and added to the store in file order, one
+ * {@link EventStore#addAll} batch per chunk. Only a few chunks are in flight
+ * at a time, so memory stays flat however big the file is.
+ */
+public class EventImporter {
+    public interface Progress {
+        /** Called after each batch is added, on the importing thread. */
+        void progress(long bytesRead, long totalBytes, int imported);
+    }
+
+    public static class Result {
+        private int imported;
+        private int skipped;
+        private String firstError;
+
+        public int getImported() { return imported; }
+        public int getSkipped() { return skipped; }
+        /** Why the first skipped record was rejected, or null if none were. */
+        public String getFirstError() { return firstError; }
+    }
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final EventStore store;
+    private final int parserThreads;
+
+    public EventImporter(EventStore store) {
+        this(store, Runtime.getRuntime().availableProcessors());
+    }
+
+    public EventImporter(EventStore store, int parserThreads) {
+        this.store = store;
+        this.parserThreads = parserThreads;
+    }
+
+    /**
+     * Imports {@code file}, whose extension picks the format. Records that
+     * can't be parsed are skipped and counted. Blocks until done.
+     */
+    public Result importFile(Path file, Progress progress) throws IOException, InterruptedException {
+        return importFile(file, LocalDateTime.now(), progress);
+    }
+
+    /**
+     * As {@link #importFile(Path, Progress)}, judging which events are already
+     * past by {@code now}, so importing the same file again gives the same events.
+     */
+    public Result importFile(Path file, LocalDateTime now, Progress progress)
+            throws IOException, InterruptedException {
+        EventFormat format = EventFormat.forFile(file);
+        long totalBytes = Files.size(file);
+        Result result = new Result();
+        ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, runnable -> {
+            Thread thread = new Thread(runnable, "event-import-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        try (CountingInputStream counter = new CountingInputStream(Files.newInputStream(file));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(counter, StandardCharsets.UTF_8))) {
+            List<String> records = new ArrayList<>(CHUNK_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String record = format.nextRecord(line);
+                if (record != null) {
+                    records.add(record);
+                }
+                if (records.size() == CHUNK_SIZE) {
+                    inFlight.add(submit(parsers, format, records, now));
+                    records = new ArrayList<>(CHUNK_SIZE);
+                    // Keep every parser busy but no more than that buffered
+                    if (inFlight.size() > parserThreads * 2) {
+                        addChunk(inFlight.remove(), result);
+                        progress.progress(counter.count, totalBytes, result.imported);
+                    }
+                }
+            }
+            String last = format.lastRecord();
+            if (last != null) {
+                records.add(last);
+            }
+            if (!records.isEmpty()) {
+                inFlight.add(submit(parsers, format, records, now));
+            }
+            while (!inFlight.isEmpty()) {
+                addChunk(inFlight.remove(), result);
+                progress.progress(counter.count, totalBytes, result.imported);
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+        return result;
+    }
+
+    private static Future<Chunk> submit(ExecutorService parsers, EventFormat format, List<String> records,
+            LocalDateTime now) {
+        return parsers.submit(() -> {
+            Chunk chunk = new Chunk(records.size());
+            for (String record : records) {
+                try {
+                    chunk.events.add(format.parse(record, now));
+                } catch (IllegalArgumentException | DateTimeException e) {
+                    chunk.skipped++;
+                    if (chunk.firstError == null) {
+                        chunk.firstError = e.getMessage();
+                    }
+                }
+            }
+            return chunk;
+        });
+    }
+
+    private void addChunk(Future<Chunk> pending, Result result) throws IOException, InterruptedException {
+        Chunk chunk;
+        try {
+            chunk = pending.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Couldn't parse import file", e.getCause());
+        }
+        store.addAll(chunk.events);
+        result.imported += chunk.events.size();
+        result.skipped += chunk.skipped;
+        if (result.firstError == null) {
+            result.firstError = chunk.firstError;
+        }
+    }
+
+    private static class Chunk {
+        final List<Event> events;
+        int skipped;
+        String firstError;
+
+        Chunk(int size) {
+            events = new ArrayList<>(size);
+        }
+    }
+
+    // Bytes handed to the decoder so far; runs slightly ahead of the records
+    // parsed because of read-ahead buffering, which is fine for progress
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
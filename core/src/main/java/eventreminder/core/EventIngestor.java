@@ -0,0 +1,157 @@
+package eventreminder.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Takes events from other programs and adds them to a store in batches.
+ *
+ * Callers submit single events or lists from any number of threads. One
+ * writer thread gathers whatever has queued up, up to {@link #MAX_BATCH}
+ * events, into a single {@link EventStore#addAll}, so the scheduler, the
+ * indexes and the list on screen hear about each batch once rather than
+ * about each event. When a journal is given, the batch is on disk before any
+ * submission in it completes, and they fail if it couldn't be saved. The queue is bounded: when the writer falls
+ * behind, submitters wait.
+ */
+public class EventIngestor {
+    public static final int MAX_BATCH = 5000;
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private final EventStore store;
+    private final EventJournal journal;
+    private final BlockingQueue<Submission> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    // Submitters share it while queueing, close takes it alone, so nothing is
+    // queued behind the end marker
+    private final ReadWriteLock closing = new ReentrantReadWriteLock();
+    private Thread writer;
+    private boolean closed;
+
+    /** {@code journal} may be null if the store isn't saved. */
+    public EventIngestor(EventStore store, EventJournal journal) {
+        this.store = store;
+        this.journal = journal;
+    }
+
+    public void start() {
+        writer = Thread.ofVirtual().name("event-ingestor").start(this::writeLoop);
+    }
+
+    /**
+     * Queues events to add; ids on them are ignored. Completes with the events
+     * as stored, in the same order. Waits while the queue is full.
+     */
+    public CompletableFuture<List<Event>> submit(List<Event> events) throws InterruptedException {
+        Submission submission = new Submission(events);
+        closing.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Ingestor is closed");
+            }
+            if (events.isEmpty()) {
+                submission.result.complete(events);
+            } else {
+                // The writer keeps draining until the end marker, so this
+                // can't wait forever behind a close
+                queue.put(submission);
+            }
+        } finally {
+            closing.readLock().unlock();
+        }
+        return submission.result;
+    }
+
+    public CompletableFuture<Event> submit(Event event) throws InterruptedException {
+        return submit(List.of(event)).thenApply(added -> added.get(0));
+    }
+
+    /** Stops taking submissions and waits for those already queued to be added. */
+    public void close() throws InterruptedException {
+        closing.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.put(new Submission(null));
+        } finally {
+            closing.writeLock().unlock();
+        }
+        if (writer != null) {
+            writer.join();
+        }
+    }
+
+    private void writeLoop() {
+        List<Submission> batch = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        while (true) {
+            Submission next;
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            boolean stopping = false;
+            // Gather what else is waiting, stopping at the batch limit
+            while (next != null) {
+                if (next.events == null) {
+                    stopping = true;
+                } else {
+                    batch.add(next);
+                    events.addAll(next.events);
+                }
+                if (events.size() >= MAX_BATCH) {
+                    break;
+                }
+                next = queue.poll();
+            }
+            if (!batch.isEmpty()) {
+                write(batch, events);
+                batch.clear();
+                events.clear();
+            }
+            if (stopping) {
+                return;
+            }
+        }
+    }
+
+    private void write(List<Submission> batch, List<Event> events) {
+        try {
+            List<Event> added = store.addAll(events);
+            if (journal != null) {
+                journal.flush();
+            }
+            int start = 0;
+            for (Submission submission : batch) {
+                int end = start + submission.events.size();
+                submission.result.complete(new ArrayList<>(added.subList(start, end)));
+                start = end;
+            }
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            for (Submission submission : batch) {
+                submission.result.completeExceptionally(e);
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class Submission {
+        // null marks the end of input
+        final List<Event> events;
+        final CompletableFuture<List<Event>> result = new CompletableFuture<>();
+
+        Submission(List<Event> events) {
+            this.events = events;
+        }
+    }
+}
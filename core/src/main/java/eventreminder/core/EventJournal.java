@@ -0,0 +1,659 @@
+package eventreminder.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only event log with periodic compacted snapshots.
+ *
+ * Every change is encoded on the calling thread and handed to a single writer
+ * thread, which appends whatever has queued up in one write and one fsync
+ * (group commit), so callers never wait for the disk. After
+ * {@code compactionThreshold} records the writer rolls over to a new journal
+ * generation and writes a snapshot of the live events; startup then reads the
+ * snapshot plus the short journal tail through memory-mapped buffers.
+ *
+ * Records are framed as {@code [length][crc32][payload]} so a torn write at the
+ * end of the journal is detected and truncated on the next load. Records a
+ * write fails on are kept and tried again with the next batch; until they
+ * are written, {@link #flush} throws. Replaying a
+ * record is idempotent, which is what lets the snapshot be taken while new
+ * changes are still being appended.
+ *
+ * Format version 2 added recurrence rules to PUT records. Version 1 files are
+ * still read; new records then go to a fresh journal generation so that no
+ * file mixes the two formats.
+ */
+public class EventJournal implements EventStore.Listener {
+    private static final int JOURNAL_MAGIC = 0x45564a4c; // "EVJL"
+    private static final int SNAPSHOT_MAGIC = 0x4556534e; // "EVSN"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_BATCH = 4096;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_NOTIFIED = 3;
+
+    private final Path directory;
+    private final int compactionThreshold;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private Supplier<? extends Collection<Event>> snapshotSource;
+    private Thread writer;
+    private FileChannel journal;
+    // Where the last good write ended
+    private long journalEnd;
+    private long generation;
+    private int journalVersion = FORMAT_VERSION;
+    private int recordsSinceSnapshot;
+    private volatile boolean closed;
+
+    public EventJournal(Path directory, int compactionThreshold) {
+        this.directory = directory;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Reads the latest snapshot and replays the journal on top of it. Returns
+     * the live events in the order they were first recorded.
+     */
+    public List<Event> load() throws IOException {
+        Files.createDirectories(directory);
+        Map<Long, Event> events = new LinkedHashMap<>();
+
+        Path snapshot = directory.resolve("events.snapshot");
+        if (Files.exists(snapshot)) {
+            generation = readSnapshot(snapshot, events);
+        }
+
+        List<Long> generations = journalGenerations();
+        for (long older : generations) {
+            if (older < generation) {
+                Files.deleteIfExists(journalPath(older));
+            }
+        }
+        long validEnd = HEADER_SIZE;
+        for (long gen : generations) {
+            if (gen >= generation) {
+                validEnd = replay(journalPath(gen), events);
+                generation = gen;
+            }
+        }
+
+        if (journalVersion != FORMAT_VERSION) {
+            generation++;
+            validEnd = HEADER_SIZE;
+        }
+        journal = openJournal(generation);
+        if (journal.size() > validEnd) {
+            System.out.println("Discarding incomplete journal tail in " + journalPath(generation));
+            journal.truncate(validEnd);
+        }
+        journalEnd = journal.size();
+        journal.position(journalEnd);
+        return new ArrayList<>(events.values());
+    }
+
+    /**
+     * Starts the background writer. {@code snapshotSource} must return the
+     * current live events, including every change already passed to this
+     * journal, as {@link EventStore#snapshot} does; it is called from the
+     * writer thread when compacting.
+     */
+    public void start(Supplier<? extends Collection<Event>> snapshotSource) {
+        this.snapshotSource = snapshotSource;
+        // Virtual, so a process hosting thousands of journals doesn't need a
+        // platform thread for each mostly idle writer
+        writer = Thread.ofVirtual().name("event-journal-writer").start(this::writeLoop);
+    }
+
+    public void put(Event event) {
+        byte[] title = utf8(event.getTitle());
+        byte[] description = utf8(event.getDescription());
+        byte[] category = utf8(event.getCategory());
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8 + 12 + 1
+            + 12 + title.length + description.length + category.length
+            + recurrenceSize(event.getRecurrence()));
+        encodePut(payload, event, title, description, category);
+        enqueue(payload);
+    }
+
+    public void delete(Event event) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8);
+        payload.put(OP_DELETE).putLong(event.getId());
+        enqueue(payload);
+    }
+
+    public void notified(Event event) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8 + 1);
+        payload.put(OP_NOTIFIED).putLong(event.getId()).put((byte) (event.isNotified() ? 1 : 0));
+        enqueue(payload);
+    }
+
+    @Override
+    public void eventAdded(Event event) {
+        put(event);
+    }
+
+    @Override
+    public void eventUpdated(Event previous, Event current) {
+        if (previous.hasSameDetails(current)) {
+            notified(current);
+        } else {
+            put(current);
+        }
+    }
+
+    @Override
+    public void eventRemoved(Event event) {
+        delete(event);
+    }
+
+    @Override
+    public void eventsLoaded(List<Event> events) {
+        // already on disk
+    }
+
+    /**
+     * Blocks until everything queued so far is on disk. Throws IOException if
+     * writing it failed, and IllegalStateException if the journal has been
+     * closed, as nothing more will be written.
+     */
+    public void flush() throws IOException, InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        Barrier barrier = new Barrier(false);
+        queue.add(barrier);
+        while (true) {
+            try {
+                barrier.done.get(100, TimeUnit.MILLISECONDS);
+                return;
+            } catch (ExecutionException e) {
+                throw new IOException("Event journal write failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (TimeoutException e) {
+                // A close that got in first can stop the writer before it reaches this barrier
+                if (!writer.isAlive() && !barrier.done.isDone()) {
+                    throw new IllegalStateException("Journal is closed");
+                }
+            }
+        }
+    }
+
+    /** Writes out queued records, compacts if anything changed, and stops the writer. */
+    public void close(long timeout, TimeUnit unit) throws InterruptedException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Barrier barrier = new Barrier(true);
+        queue.add(barrier);
+        try {
+            barrier.done.get(timeout, unit);
+        } catch (ExecutionException | TimeoutException e) {
+            // Reported by the writer, or still writing
+        }
+    }
+
+    private void enqueue(ByteBuffer payload) {
+        if (closed) {
+            return;
+        }
+        payload.flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.remaining());
+        record.putInt(payload.remaining()).putInt((int) crc.getValue()).put(payload);
+        record.flip();
+        queue.add(record);
+    }
+
+    private void writeLoop() {
+        List<Object> batch = new ArrayList<>();
+        // Records not yet written, including any a failed write left behind
+        List<ByteBuffer> records = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH);
+            } catch (InterruptedException e) {
+                return;
+            }
+            boolean closing = false;
+            for (Object item : batch) {
+                if (item instanceof ByteBuffer) {
+                    records.add((ByteBuffer) item);
+                } else if (((Barrier) item).closing) {
+                    closing = true;
+                }
+            }
+            IOException failure = null;
+            if (!records.isEmpty()) {
+                try {
+                    append(records);
+                    recordsSinceSnapshot += records.size();
+                    records.clear();
+                } catch (IOException e) {
+                    failure = e;
+                    System.out.println("Error writing event journal, " + records.size() + " changes not saved yet: "
+                        + e.getMessage());
+                }
+            }
+            try {
+                if (failure == null && (recordsSinceSnapshot >= compactionThreshold
+                        || (closing && recordsSinceSnapshot > 0))) {
+                    compact();
+                }
+            } catch (IOException e) {
+                // The journal still holds everything; compaction is tried again later
+                System.out.println("Error compacting event journal: " + e.getMessage());
+            }
+            if (closing) {
+                if (!records.isEmpty()) {
+                    System.out.println("Closing event journal with " + records.size() + " changes not saved");
+                }
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.out.println("Error closing event journal: " + e.getMessage());
+                }
+            }
+            for (Object item : batch) {
+                if (item instanceof Barrier) {
+                    if (failure == null) {
+                        ((Barrier) item).done.complete(null);
+                    } else {
+                        ((Barrier) item).done.completeExceptionally(failure);
+                    }
+                }
+            }
+            batch.clear();
+            if (closing) {
+                return;
+            }
+        }
+    }
+
+    // Appends and syncs the records, or throws leaving the journal as it was
+    // before them so they can be written again
+    private void append(List<ByteBuffer> records) throws IOException {
+        if (!journal.isOpen()) {
+            // Closed after a failed write, or by an interrupt
+            journal = openJournal(generation);
+            if (journal.size() > journalEnd) {
+                journal.truncate(journalEnd);
+            }
+            journal.position(journal.size());
+        }
+        for (ByteBuffer record : records) {
+            record.rewind();
+        }
+        try {
+            writeFully(journal, records.toArray(new ByteBuffer[0]));
+            journal.force(false);
+            journalEnd = journal.position();
+        } catch (IOException e) {
+            // The next try reopens it and cuts off whatever part got written
+            try {
+                journal.close();
+            } catch (IOException ignored) {
+                // Already failing
+            }
+            throw e;
+        }
+    }
+
+    // Rolls over to a new journal generation, then snapshots the live events.
+    // Anything appended after the rollover lands in the new journal and is
+    // replayed on top of the snapshot, so the snapshot may safely include it too;
+    // what went into the old journal must already be in the snapshot, since
+    // that journal is deleted.
+    private void compact() throws IOException {
+        long next = generation + 1;
+        FileChannel nextJournal = openJournal(next);
+        journal.close();
+        journal = nextJournal;
+        journalEnd = journal.size();
+        journal.position(journalEnd);
+        generation = next;
+        recordsSinceSnapshot = 0;
+
+        writeSnapshot(snapshotSource.get(), next);
+        for (long older : journalGenerations()) {
+            if (older < next) {
+                Files.deleteIfExists(journalPath(older));
+            }
+        }
+    }
+
+    private void writeSnapshot(Collection<Event> events, long snapshotGeneration) throws IOException {
+        Path temp = directory.resolve("events.snapshot.tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + 8 + 4);
+            header.putInt(SNAPSHOT_MAGIC).putInt(FORMAT_VERSION)
+                .putLong(snapshotGeneration).putInt(events.size()).flip();
+            writeFully(out, header);
+
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+            CRC32 crc = new CRC32();
+            for (Event event : events) {
+                byte[] title = utf8(event.getTitle());
+                byte[] description = utf8(event.getDescription());
+                byte[] category = utf8(event.getCategory());
+                int length = 1 + 8 + 12 + 1 + 12 + title.length + description.length + category.length
+                    + recurrenceSize(event.getRecurrence());
+                if (buffer.remaining() < length + 8) {
+                    buffer.flip();
+                    writeFully(out, buffer);
+                    buffer.clear();
+                    if (buffer.capacity() < length + 8) {
+                        buffer = ByteBuffer.allocate(length + 8);
+                    }
+                }
+                int start = buffer.position();
+                buffer.position(start + 8);
+                encodePut(buffer, event, title, description, category);
+                crc.reset();
+                crc.update(buffer.array(), start + 8, length);
+                buffer.putInt(start, length).putInt(start + 4, (int) crc.getValue());
+            }
+            buffer.flip();
+            writeFully(out, buffer);
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve("events.snapshot"),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long readSnapshot(Path snapshot, Map<Long, Event> events) throws IOException {
+        try (FileChannel in = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            if (buffer.remaining() < HEADER_SIZE + 12 || buffer.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Unrecognised snapshot file " + snapshot);
+            }
+            int version = buffer.getInt();
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + snapshot);
+            }
+            long snapshotGeneration = buffer.getLong();
+            int count = buffer.getInt();
+            RecordReader reader = new RecordReader(buffer, version);
+            for (int i = 0; i < count; i++) {
+                if (!reader.nextRecord()) {
+                    throw new IOException("Corrupt snapshot file " + snapshot);
+                }
+                reader.apply(events);
+            }
+            return snapshotGeneration;
+        }
+    }
+
+    // Replays one journal file and returns the offset just past its last intact record.
+    private long replay(Path path, Map<Long, Event> events) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (in.size() < HEADER_SIZE) {
+                return HEADER_SIZE;
+            }
+            MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            if (buffer.getInt() != JOURNAL_MAGIC) {
+                throw new IOException("Unrecognised journal file " + path);
+            }
+            journalVersion = buffer.getInt();
+            if (journalVersion < 1 || journalVersion > FORMAT_VERSION) {
+                throw new IOException("Unsupported journal version " + journalVersion + " in " + path);
+            }
+            RecordReader reader = new RecordReader(buffer, journalVersion);
+            while (true) {
+                int start = buffer.position();
+                if (!reader.nextRecord()) {
+                    return start;
+                }
+                reader.apply(events);
+            }
+        }
+    }
+
+    private static void encodePut(ByteBuffer buffer, Event event, byte[] title, byte[] description,
+            byte[] category) {
+        buffer.put(OP_PUT).putLong(event.getId());
+        putTime(buffer, event.getDateTime());
+        buffer.put((byte) (event.isNotified() ? 1 : 0));
+        buffer.putInt(title.length).put(title);
+        buffer.putInt(description.length).put(description);
+        buffer.putInt(category.length).put(category);
+        encodeRecurrence(buffer, event.getRecurrence());
+    }
+
+    private static int recurrenceSize(Recurrence recurrence) {
+        if (recurrence == null) {
+            return 1;
+        }
+        return 1 + 1 + 4 + 12 + 4 + 1 + (recurrence.getUntil() == null ? 0 : 12)
+            + 4 + 12 * recurrence.getExceptions().size();
+    }
+
+    private static void encodeRecurrence(ByteBuffer buffer, Recurrence recurrence) {
+        if (recurrence == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        buffer.put((byte) 1).put((byte) recurrence.getFrequency().ordinal()).putInt(recurrence.getInterval());
+        putTime(buffer, recurrence.getStart());
+        buffer.putInt(recurrence.getCount());
+        if (recurrence.getUntil() == null) {
+            buffer.put((byte) 0);
+        } else {
+            putTime(buffer.put((byte) 1), recurrence.getUntil());
+        }
+        buffer.putInt(recurrence.getExceptions().size());
+        for (LocalDateTime exception : recurrence.getExceptions()) {
+            putTime(buffer, exception);
+        }
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        buffer.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private FileChannel openJournal(long gen) throws IOException {
+        FileChannel channel = FileChannel.open(journalPath(gen), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(JOURNAL_MAGIC).putInt(FORMAT_VERSION).flip();
+            writeFully(channel, header);
+            channel.force(true);
+        }
+        return channel;
+    }
+
+    private Path journalPath(long gen) {
+        return directory.resolve("events-" + gen + ".journal");
+    }
+
+    private List<Long> journalGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "events-*.journal")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    generations.add(Long.parseLong(name.substring(7, name.length() - 8)));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer... buffers) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+    }
+
+    // Decodes records straight out of a mapped file. Scratch space is reused and
+    // category names (a handful of distinct values) are shared between events,
+    // which keeps allocation on the startup path down to the events themselves.
+    private static class RecordReader {
+        private static final Recurrence.Frequency[] FREQUENCIES = Recurrence.Frequency.values();
+
+        private final ByteBuffer buffer;
+        private final int version;
+        private final CRC32 crc = new CRC32();
+        private final List<String> categories = new ArrayList<>();
+        private final List<byte[]> categoryBytes = new ArrayList<>();
+        private byte[] scratch = new byte[256];
+
+        RecordReader(ByteBuffer buffer, int version) {
+            this.buffer = buffer;
+            this.version = version;
+        }
+
+        // Checks the frame at the buffer's position and leaves the position at the
+        // start of its payload. Returns false if the frame is incomplete or corrupt.
+        boolean nextRecord() {
+            if (buffer.remaining() < 8) {
+                return false;
+            }
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return false;
+            }
+            int start = buffer.position();
+            int limit = buffer.limit();
+            buffer.limit(start + length);
+            crc.reset();
+            crc.update(buffer);
+            buffer.limit(limit);
+            buffer.position(start);
+            return (int) crc.getValue() == expectedCrc;
+        }
+
+        void apply(Map<Long, Event> events) {
+            byte op = buffer.get();
+            long id = buffer.getLong();
+            switch (op) {
+                case OP_PUT:
+                    LocalDateTime dateTime = readTime();
+                    boolean notified = buffer.get() != 0;
+                    String title = readString();
+                    String description = readString();
+                    String category = readCategory();
+                    Recurrence recurrence = version >= 2 ? readRecurrence() : null;
+                    events.put(id, new Event(id, title, description, dateTime, category, notified, recurrence));
+                    break;
+                case OP_DELETE:
+                    events.remove(id);
+                    break;
+                case OP_NOTIFIED:
+                    boolean flag = buffer.get() != 0;
+                    Event existing = events.get(id);
+                    if (existing != null) {
+                        events.put(id, existing.withNotified(flag));
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown journal record type " + op);
+            }
+        }
+
+        private LocalDateTime readTime() {
+            long epochSecond = buffer.getLong();
+            return LocalDateTime.ofEpochSecond(epochSecond, buffer.getInt(), ZoneOffset.UTC);
+        }
+
+        private Recurrence readRecurrence() {
+            if (buffer.get() == 0) {
+                return null;
+            }
+            Recurrence.Frequency frequency = FREQUENCIES[buffer.get()];
+            int interval = buffer.getInt();
+            LocalDateTime start = readTime();
+            int count = buffer.getInt();
+            LocalDateTime until = buffer.get() != 0 ? readTime() : null;
+            int exceptionCount = buffer.getInt();
+            List<LocalDateTime> exceptions = new ArrayList<>(exceptionCount);
+            for (int i = 0; i < exceptionCount; i++) {
+                exceptions.add(readTime());
+            }
+            return new Recurrence(frequency, interval, start, count, until, exceptions);
+        }
+
+        private String readString() {
+            int length = readBytes();
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private String readCategory() {
+            int length = readBytes();
+            for (int i = 0; i < categoryBytes.size(); i++) {
+                byte[] known = categoryBytes.get(i);
+                if (Arrays.equals(known, 0, known.length, scratch, 0, length)) {
+                    return categories.get(i);
+                }
+            }
+            String category = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            if (categories.size() < 64) {
+                categories.add(category);
+                categoryBytes.add(Arrays.copyOf(scratch, length));
+            }
+            return category;
+        }
+
+        private int readBytes() {
+            int length = buffer.getInt();
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            return length;
+        }
+    }
+
+    private static class Barrier {
+        final boolean closing;
+        // Fails with the write error if the records before it couldn't be saved
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Barrier(boolean closing) {
+            this.closing = closing;
+        }
+    }
+}
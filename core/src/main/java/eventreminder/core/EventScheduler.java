@@ -0,0 +1,196 @@
+package eventreminder.core;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Fires reminders at their due time. Pending reminders are kept in a min-heap
+ * ordered by due instant, and a single worker thread sleeps until the head of
+ * the heap is due instead of polling the whole event list.
+ *
+ * Rescheduling and cancelling are O(log n): the previous heap entry is only
+ * marked cancelled and dropped when it reaches the head (or during an
+ * occasional compaction), so nothing is searched linearly.
+ *
+ * Given a {@link ReminderMetrics}, the worker records how long it takes to
+ * find each due reminder and to hand it on.
+ */
+public class EventScheduler<K> {
+    private final PriorityQueue<Entry<K>> queue = new PriorityQueue<>();
+    private final Map<K, Entry<K>> pending = new HashMap<>();
+    private final Consumer<K> onDue;
+    private final ReminderMetrics metrics;
+    private final Thread worker;
+    private long sequence;
+    private int cancelled;
+    private boolean running = true;
+
+    public EventScheduler(String name, Consumer<K> onDue) {
+        this(name, onDue, null);
+    }
+
+    public EventScheduler(String name, Consumer<K> onDue, ReminderMetrics metrics) {
+        this.onDue = onDue;
+        this.metrics = metrics;
+        this.worker = new Thread(this::runLoop, name);
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        notifyAll();
+    }
+
+    /** Schedules {@code key} to fire at {@code due}, replacing any earlier schedule for it. */
+    public synchronized void schedule(K key, LocalDateTime due) {
+        cancelEntry(pending.remove(key));
+        Entry<K> entry = new Entry<>(key, toMillis(due), sequence++);
+        pending.put(key, entry);
+        queue.add(entry);
+        if (queue.peek() == entry) {
+            notifyAll();
+        }
+    }
+
+    /** Schedules a batch under one lock, waking the worker at most once. */
+    public synchronized void scheduleAll(Map<K, LocalDateTime> due) {
+        Entry<K> head = queue.peek();
+        for (Map.Entry<K, LocalDateTime> item : due.entrySet()) {
+            cancelEntry(pending.remove(item.getKey()));
+            Entry<K> entry = new Entry<>(item.getKey(), toMillis(item.getValue()), sequence++);
+            pending.put(item.getKey(), entry);
+            queue.add(entry);
+        }
+        if (queue.peek() != head) {
+            notifyAll();
+        }
+    }
+
+    public synchronized void cancel(K key) {
+        cancelEntry(pending.remove(key));
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Removes and returns the earliest key due at {@code nowMillis}, or null if
+     * nothing is due yet. The worker thread does this itself; this is for
+     * callers that drive the scheduler by hand, such as benchmarks.
+     */
+    public synchronized K pollDue(long nowMillis) {
+        Entry<K> head = liveHead();
+        if (head == null || head.dueMillis > nowMillis) {
+            return null;
+        }
+        queue.poll();
+        pending.remove(head.key);
+        return head.key;
+    }
+
+    private void cancelEntry(Entry<K> entry) {
+        if (entry == null) {
+            return;
+        }
+        entry.cancelled = true;
+        cancelled++;
+        if (cancelled > 64 && cancelled > queue.size() / 2) {
+            queue.removeIf(e -> e.cancelled);
+            cancelled = 0;
+        }
+    }
+
+    private void runLoop() {
+        while (true) {
+            K due;
+            synchronized (this) {
+                Entry<K> head = nextDue();
+                if (head == null) {
+                    return;
+                }
+                pending.remove(head.key);
+                due = head.key;
+            }
+            long start = System.nanoTime();
+            try {
+                onDue.accept(due);
+            } catch (RuntimeException e) {
+                System.out.println("Error delivering reminder: " + e);
+            }
+            if (metrics != null) {
+                metrics.dispatched(System.nanoTime() - start);
+            }
+        }
+    }
+
+    // Blocks until the earliest live entry is due and removes it from the heap.
+    // Returns null once the scheduler has been stopped.
+    private Entry<K> nextDue() {
+        while (running) {
+            long start = System.nanoTime();
+            Entry<K> head = liveHead();
+            try {
+                if (head == null) {
+                    wait();
+                } else {
+                    long delay = head.dueMillis - System.currentTimeMillis();
+                    if (delay <= 0) {
+                        Entry<K> due = queue.poll();
+                        if (metrics != null) {
+                            metrics.schedulerScanned(System.nanoTime() - start);
+                        }
+                        return due;
+                    }
+                    wait(delay);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // Drops cancelled entries from the top of the heap and returns the first live one
+    private Entry<K> liveHead() {
+        Entry<K> head = queue.peek();
+        while (head != null && head.cancelled) {
+            queue.poll();
+            cancelled--;
+            head = queue.peek();
+        }
+        return head;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static class Entry<K> implements Comparable<Entry<K>> {
+        final K key;
+        final long dueMillis;
+        final long sequence;
+        boolean cancelled;
+
+        Entry(K key, long dueMillis, long sequence) {
+            this.key = key;
+            this.dueMillis = dueMillis;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry<K> other) {
+            int byTime = Long.compare(dueMillis, other.dueMillis);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package eventreminder.core;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe home of all events, shared by the EDT, the scheduler thread and
+ * the journal writer.
+ *
+ * Events are immutable, so a change swaps in a new version for the id.
+ * Writes to the same event are serialised; how reads and other writes are
+ * ordered is up to the {@link EventTable}. Listeners are told about each change while
+ * that event is still held, so they see the versions of any one event in the
+ * order they were written. They must be quick and must not write to the
+ * store themselves.
+ *
+ * Single-event writes share a store-wide lock; a batch takes it exclusively,
+ * so its events are in the table before listeners hear of them and no
+ * change to one of them can be reported ahead of the batch.
+ */
+public class EventStore {
+    public interface Listener {
+        default void eventAdded(Event event) {}
+        default void eventUpdated(Event previous, Event current) {}
+        default void eventRemoved(Event event) {}
+
+        /** A batch of new events added together, such as an import. */
+        default void eventsAdded(List<Event> events) {
+            events.forEach(this::eventAdded);
+        }
+
+        /** Events read back from disk at startup; these are not new changes. */
+        default void eventsLoaded(List<Event> events) {
+            events.forEach(this::eventAdded);
+        }
+    }
+
+    private final EventTable events;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ReentrantReadWriteLock writes = new ReentrantReadWriteLock();
+
+    public EventStore() {
+        this(new HashEventTable());
+    }
+
+    public EventStore(EventTable events) {
+        this.events = events;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public Event get(long id) {
+        return events.get(id);
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * The live events, in no particular order, without copying. Iteration is
+     * weakly consistent: it never fails, and may or may not see changes made
+     * while it runs.
+     */
+    public Iterable<Event> events() {
+        return events;
+    }
+
+    /**
+     * A copy of the live events, in no particular order. It includes every
+     * change that listeners had been told about when it was called, which is
+     * what lets the journal compact from it: first any write still in flight
+     * is waited out, then the copy is taken without holding up writers.
+     */
+    public List<Event> snapshot() {
+        writes.writeLock().lock();
+        writes.writeLock().unlock();
+        List<Event> copy = new ArrayList<>(events.size());
+        for (Event event : events) {
+            copy.add(event);
+        }
+        return copy;
+    }
+
+    public void load(List<Event> loaded) {
+        long maxId = 0;
+        for (Event event : loaded) {
+            events.put(event);
+            maxId = Math.max(maxId, event.getId());
+        }
+        nextId.accumulateAndGet(maxId + 1, Math::max);
+        for (Listener listener : listeners) {
+            listener.eventsLoaded(loaded);
+        }
+    }
+
+    public Event add(String title, String description, LocalDateTime dateTime, String category) {
+        return add(title, description, dateTime, category, null);
+    }
+
+    /** Adds a repeating event; {@code dateTime} should be the first occurrence of {@code recurrence}. */
+    public Event add(String title, String description, LocalDateTime dateTime, String category,
+            Recurrence recurrence) {
+        Event event = events.normalize(
+            new Event(nextId.getAndIncrement(), title, description, dateTime, category, false, recurrence));
+        writes.readLock().lock();
+        try {
+            events.compute(event.getId(), existing -> {
+                for (Listener listener : listeners) {
+                    listener.eventAdded(event);
+                }
+                return event;
+            });
+        } finally {
+            writes.readLock().unlock();
+        }
+        return event;
+    }
+
+    /**
+     * Adds a batch of new events, such as an import, assigning fresh ids in
+     * order; ids on the given events are ignored. Listeners get the whole
+     * batch in one eventsAdded call. Returns the events as stored.
+     */
+    public List<Event> addAll(List<Event> batch) {
+        if (batch.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long firstId = nextId.getAndAdd(batch.size());
+        List<Event> added = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            added.add(events.normalize(batch.get(i).withId(firstId + i)));
+        }
+        // The events go in first so that a reminder armed by a listener finds
+        // its event; holding the lock until the listeners are done keeps any
+        // change to one of them from overtaking the batch
+        writes.writeLock().lock();
+        try {
+            for (Event event : added) {
+                events.put(event);
+            }
+            for (Listener listener : listeners) {
+                listener.eventsAdded(added);
+            }
+        } finally {
+            writes.writeLock().unlock();
+        }
+        return added;
+    }
+
+    /** Sets aside {@code count} consecutive ids and returns the first, for {@link #addAllWithIds}. */
+    public long reserveIds(int count) {
+        return nextId.getAndAdd(count);
+    }
+
+    /**
+     * Adds a batch of new events under the ids they carry, skipping any id
+     * the store already has, so repeating a batch that was cut short adds
+     * only what is missing. Otherwise as {@link #addAll}. Returns the events
+     * added.
+     */
+    public List<Event> addAllWithIds(List<Event> batch) {
+        List<Event> added = new ArrayList<>(batch.size());
+        long maxId = 0;
+        writes.writeLock().lock();
+        try {
+            for (Event event : batch) {
+                if (events.get(event.getId()) == null) {
+                    Event normalized = events.normalize(event);
+                    events.put(normalized);
+                    added.add(normalized);
+                }
+                maxId = Math.max(maxId, event.getId());
+            }
+            nextId.accumulateAndGet(maxId + 1, Math::max);
+            if (!added.isEmpty()) {
+                for (Listener listener : listeners) {
+                    listener.eventsAdded(added);
+                }
+            }
+        } finally {
+            writes.writeLock().unlock();
+        }
+        return added;
+    }
+
+    /**
+     * Applies {@code change} to the current version of the event atomically.
+     * Returns the resulting version, or null if the event no longer exists.
+     */
+    public Event update(long id, UnaryOperator<Event> change) {
+        writes.readLock().lock();
+        try {
+            return events.compute(id, previous -> {
+                if (previous == null) {
+                    return null;
+                }
+                Event current = change.apply(previous);
+                if (current != previous) {
+                    current = events.normalize(current);
+                    for (Listener listener : listeners) {
+                        listener.eventUpdated(previous, current);
+                    }
+                }
+                return current;
+            });
+        } finally {
+            writes.readLock().unlock();
+        }
+    }
+
+    /** Swaps in {@code replacement} only if {@code expected} is still the current version. */
+    public boolean replace(Event expected, Event replacement) {
+        boolean[] replaced = new boolean[1];
+        update(expected.getId(), current -> {
+            // Tables that hand out views return a new object on every read
+            if (current == expected || current.isSameVersion(expected)) {
+                replaced[0] = true;
+                return replacement;
+            }
+            return current;
+        });
+        return replaced[0];
+    }
+
+    /**
+     * Marks the event notified, or moves a series on to its next occurrence, if
+     * it is due at {@code now} and hasn't fired yet. Returns the version that
+     * fell due, or null if the event was deleted, already notified, or moved
+     * later by a concurrent edit.
+     */
+    public Event claimDue(long id, LocalDateTime now) {
+        // Checked inside the update rather than after a get, so a reminder
+        // armed by a listener while its event is being added waits for it
+        Event[] due = new Event[1];
+        update(id, event -> {
+            if (event.isNotified() || event.getDateTime().isAfter(now)) {
+                return event;
+            }
+            due[0] = event;
+            return event.advancePast(now);
+        });
+        return due[0];
+    }
+
+    public Event remove(long id) {
+        Event[] removed = new Event[1];
+        writes.readLock().lock();
+        try {
+            events.compute(id, previous -> {
+                if (previous == null) {
+                    return null;
+                }
+                for (Listener listener : listeners) {
+                    listener.eventRemoved(previous);
+                }
+                removed[0] = previous;
+                return null;
+            });
+        } finally {
+            writes.readLock().unlock();
+        }
+        return removed[0];
+    }
+}
@@ -0,0 +1,35 @@
+package eventreminder.core;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Where an {@link EventStore} keeps its events: {@link HashEventTable} holds
+ * the Event objects themselves, {@link ColumnarEventTable} packs them into
+ * primitive columns and hands out Event views on demand.
+ *
+ * Implementations are thread-safe. Iteration is weakly consistent: it never
+ * fails, and may or may not see changes made while it runs.
+ */
+public interface EventTable extends Iterable<Event> {
+    Event get(long id);
+
+    int size();
+
+    /** Stores {@code event} under its id, replacing any earlier version. Used for loading. */
+    void put(Event event);
+
+    /**
+     * Replaces the event with this id by {@code remapping.apply(current)},
+     * where current is null if there is none, and a null result removes it.
+     * Calls for the same id never overlap. Returns the result.
+     */
+    Event compute(long id, UnaryOperator<Event> remapping);
+
+    /**
+     * The event as this table will store it, so listeners are told about
+     * exactly what {@link #get} will return later.
+     */
+    default Event normalize(Event event) {
+        return event;
+    }
+}
@@ -0,0 +1,40 @@
+package eventreminder.core;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Events kept as objects in a ConcurrentHashMap. Reads never lock and writes
+ * to different events proceed in parallel. The default table, and the right
+ * one when the events are on screen anyway.
+ */
+public class HashEventTable implements EventTable {
+    private final ConcurrentHashMap<Long, Event> events = new ConcurrentHashMap<>();
+
+    @Override
+    public Event get(long id) {
+        return events.get(id);
+    }
+
+    @Override
+    public int size() {
+        return events.size();
+    }
+
+    @Override
+    public void put(Event event) {
+        events.put(event.getId(), event);
+    }
+
+    @Override
+    public Event compute(long id, UnaryOperator<Event> remapping) {
+        return events.compute(id, (key, current) -> remapping.apply(current));
+    }
+
+    @Override
+    public Iterator<Event> iterator() {
+        return Collections.unmodifiableCollection(events.values()).iterator();
+    }
+}
@@ -0,0 +1,354 @@
+package eventreminder.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * iCalendar (RFC 5545) VEVENTs. Reads SUMMARY, DESCRIPTION, DTSTART, the
+ * first of CATEGORIES, RRULE and EXDATE; other properties and nested
+ * components such as VALARM are skipped. RRULE parts beyond FREQ, INTERVAL,
+ * COUNT and UNTIL (BYDAY and friends) are ignored, so such a series repeats
+ * on its start's day. Times with a TZID or in UTC are converted to local
+ * time; all-day dates start at midnight.
+ */
+class IcsFormat extends EventFormat {
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final StringBuilder line = new StringBuilder();
+    private StringBuilder event;
+
+    // Lines are unfolded here: a line starting with a space or tab continues
+    // the previous one, so a content line is only complete once the next begins
+    @Override
+    String nextRecord(String next) {
+        if (!next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            line.append(next, 1, next.length());
+            return null;
+        }
+        String record = completeLine();
+        line.append(next);
+        return record;
+    }
+
+    @Override
+    String lastRecord() {
+        return completeLine();
+    }
+
+    private String completeLine() {
+        String content = line.toString();
+        line.setLength(0);
+        if (content.equalsIgnoreCase("BEGIN:VEVENT")) {
+            event = new StringBuilder();
+        } else if (content.equalsIgnoreCase("END:VEVENT") && event != null) {
+            String record = event.toString();
+            event = null;
+            return record;
+        } else if (event != null) {
+            event.append(content).append('\n');
+        }
+        return null;
+    }
+
+    @Override
+    Event parse(String record, LocalDateTime now) {
+        String title = "";
+        String description = "";
+        String category = "Other";
+        LocalDateTime start = null;
+        String rule = null;
+        List<LocalDateTime> exceptions = new ArrayList<>();
+        String nested = null;
+
+        for (String content : record.split("\n")) {
+            Property property = Property.parse(content);
+            if (property == null) {
+                continue;
+            }
+            if (nested != null) {
+                if (property.name.equals("END") && property.value.equalsIgnoreCase(nested)) {
+                    nested = null;
+                }
+                continue;
+            }
+            switch (property.name) {
+                case "BEGIN":
+                    nested = property.value;
+                    break;
+                case "SUMMARY":
+                    title = unescape(property.value);
+                    break;
+                case "DESCRIPTION":
+                    description = unescape(property.value);
+                    break;
+                case "CATEGORIES":
+                    String first = splitList(property.value).get(0).trim();
+                    if (!first.isEmpty()) {
+                        category = first;
+                    }
+                    break;
+                case "DTSTART":
+                    start = parseTime(property.value, property.tzid);
+                    break;
+                case "RRULE":
+                    rule = property.value;
+                    break;
+                case "EXDATE":
+                    for (String value : property.value.split(",")) {
+                        exceptions.add(parseTime(value, property.tzid));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (start == null) {
+            throw new IllegalArgumentException("VEVENT without DTSTART");
+        }
+        Recurrence recurrence = rule == null ? null : parseRule(rule, start, exceptions);
+        return armed(title, description, start, category, recurrence, now);
+    }
+
+    @Override
+    void writeHeader(Writer out) throws IOException {
+        out.write("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//event-reminder//EN\r\n");
+    }
+
+    @Override
+    void write(Writer out, Event event) throws IOException {
+        out.write("BEGIN:VEVENT\r\n");
+        writeLine(out, "UID:" + event.getId() + "@event-reminder");
+        writeLine(out, "DTSTART:" + start(event).format(DATE_TIME));
+        writeLine(out, "SUMMARY:" + escape(event.getTitle()));
+        writeLine(out, "DESCRIPTION:" + escape(event.getDescription()));
+        writeLine(out, "CATEGORIES:" + escape(event.getCategory()));
+        Recurrence recurrence = event.getRecurrence();
+        if (recurrence != null) {
+            writeLine(out, "RRULE:" + formatRule(recurrence));
+            if (!recurrence.getExceptions().isEmpty()) {
+                StringBuilder exdate = new StringBuilder("EXDATE:");
+                for (LocalDateTime exception : recurrence.getExceptions()) {
+                    if (exdate.length() > 7) {
+                        exdate.append(',');
+                    }
+                    exdate.append(exception.format(DATE_TIME));
+                }
+                writeLine(out, exdate.toString());
+            }
+        }
+        out.write("END:VEVENT\r\n");
+    }
+
+    @Override
+    void writeFooter(Writer out) throws IOException {
+        out.write("END:VCALENDAR\r\n");
+    }
+
+    /** Parses the value of an RRULE (without the "RRULE:" name). */
+    static Recurrence parseRule(String rule, LocalDateTime start, List<LocalDateTime> exceptions) {
+        Recurrence.Frequency frequency = null;
+        int interval = 1;
+        int count = 0;
+        LocalDateTime until = null;
+        for (String part : rule.split(";")) {
+            int equals = part.indexOf('=');
+            if (equals < 0) {
+                continue;
+            }
+            String name = part.substring(0, equals).trim().toUpperCase(Locale.ROOT);
+            String value = part.substring(equals + 1).trim();
+            switch (name) {
+                case "FREQ":
+                    try {
+                        frequency = Recurrence.Frequency.valueOf(value.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unsupported repeat frequency " + value);
+                    }
+                    break;
+                case "INTERVAL":
+                    interval = Integer.parseInt(value);
+                    break;
+                case "COUNT":
+                    count = Integer.parseInt(value);
+                    break;
+                case "UNTIL":
+                    until = parseTime(value, null);
+                    // An all-day UNTIL includes that whole day
+                    if (value.length() == 8) {
+                        until = until.plusDays(1).minusNanos(1);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("Repeat rule without FREQ: " + rule);
+        }
+        return new Recurrence(frequency, interval, start, count, until, exceptions);
+    }
+
+    static String formatRule(Recurrence recurrence) {
+        StringBuilder rule = new StringBuilder("FREQ=").append(recurrence.getFrequency());
+        if (recurrence.getInterval() != 1) {
+            rule.append(";INTERVAL=").append(recurrence.getInterval());
+        }
+        if (recurrence.getCount() > 0) {
+            rule.append(";COUNT=").append(recurrence.getCount());
+        }
+        if (recurrence.getUntil() != null) {
+            rule.append(";UNTIL=").append(recurrence.getUntil().format(DATE_TIME));
+        }
+        return rule.toString();
+    }
+
+    // Floating times are taken as local; UTC and TZID times are converted to local
+    static LocalDateTime parseTime(String value, String tzid) {
+        value = value.trim();
+        if (value.length() == 8) {
+            return LocalDate.parse(value, DATE).atStartOfDay();
+        }
+        if (value.endsWith("Z")) {
+            return LocalDateTime.parse(value.substring(0, value.length() - 1), DATE_TIME)
+                .atOffset(ZoneOffset.UTC).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        }
+        LocalDateTime time = LocalDateTime.parse(value, DATE_TIME);
+        if (tzid == null) {
+            return time;
+        }
+        try {
+            return time.atZone(ZoneId.of(tzid)).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeException e) {
+            // Custom VTIMEZONE names aren't resolved; treat the time as local
+            return time;
+        }
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\':
+                case ';':
+                case ',':
+                    escaped.append('\\').append(c);
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String unescape(String text) {
+        if (text.indexOf('\\') < 0) {
+            return text;
+        }
+        StringBuilder plain = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                plain.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                plain.append(c);
+            }
+        }
+        return plain.toString();
+    }
+
+    // Splits a comma-separated list on unescaped commas, unescaping each item
+    private static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == ',') {
+                items.add(unescape(value.substring(start, i)));
+                start = i + 1;
+            }
+        }
+        items.add(unescape(value.substring(start)));
+        return items;
+    }
+
+    // Folds content lines longer than 75 octets, never splitting a character
+    private static void writeLine(Writer out, String content) throws IOException {
+        int octets = 0;
+        int start = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + width > MAX_LINE_OCTETS) {
+                out.write(content, start, i - start);
+                out.write("\r\n ");
+                start = i;
+                octets = 1;
+            }
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        out.write(content, start, content.length() - start);
+        out.write("\r\n");
+    }
+
+    // NAME;PARAM=value;...:value, with parameter values possibly quoted
+    private static class Property {
+        final String name;
+        final String tzid;
+        final String value;
+
+        private Property(String name, String tzid, String value) {
+            this.name = name;
+            this.tzid = tzid;
+            this.value = value;
+        }
+
+        static Property parse(String content) {
+            boolean quoted = false;
+            int colon = -1;
+            for (int i = 0; i < content.length(); i++) {
+                char c = content.charAt(i);
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ':' && !quoted) {
+                    colon = i;
+                    break;
+                }
+            }
+            if (colon < 0) {
+                return null;
+            }
+            String[] head = content.substring(0, colon).split(";");
+            String tzid = null;
+            for (int i = 1; i < head.length; i++) {
+                if (head[i].regionMatches(true, 0, "TZID=", 0, 5)) {
+                    tzid = head[i].substring(5).replace("\"", "");
+                }
+            }
+            return new Property(head[0].trim().toUpperCase(Locale.ROOT), tzid, content.substring(colon + 1));
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package eventreminder.core;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Local HTTP endpoint for adding events from other programs, listening on
+ * the loopback interface only. Each request runs on its own virtual thread
+ * and hands its events to an {@link EventIngestor}, which batches them.
+ *
+ * {@code POST /events} (or {@code POST /tenants/{id}/events} on the daemon)
+ * takes a CSV body in the import format: one event per line as
+ * {@code title,description,date,category,repeat,skipped}, dates as
+ * {@code yyyy-MM-dd HH:mm}, an optional header row. A one-off event whose
+ * time has already come, such as one for the current minute, fires at once.
+ * A request is all or nothing: if any line is invalid the reply is 400 naming it and nothing is
+ * added. Otherwise the reply is 201 with the new ids, one per line, once the
+ * events are stored (and saved, where there is a journal).
+ */
+public class IngestionServer {
+    /**
+     * Where a request's events go, asked once the body has been read and found
+     * valid. {@code tenantId} is null for {@code /events}. Returns null (or
+     * throws IllegalArgumentException) if there is nowhere.
+     */
+    public interface Target {
+        EventIngestor ingestor(String tenantId) throws IOException;
+    }
+
+    private static final int MAX_BODY_BYTES = 64 * 1024 * 1024;
+    private static final int SAVE_TIMEOUT_SECONDS = 60;
+
+    static {
+        // The JDK server leaves Nagle's algorithm on, so a small reply waits
+        // out the client's delayed ACK (~40 ms) unless this is set before the
+        // first server is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Target target;
+
+    public IngestionServer(int port, Target target) throws IOException {
+        this.target = target;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** The port listened on; useful when constructed with port 0. */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(1);
+        handlers.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            String tenantId;
+            if (path.length == 2 && path[1].equals("events")) {
+                tenantId = null;
+            } else if (path.length == 4 && path[1].equals("tenants") && path[3].equals("events")) {
+                tenantId = path[2];
+            } else {
+                reply(exchange, 404, "Not found\n");
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                reply(exchange, 405, "Use POST\n");
+                return;
+            }
+            byte[] body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                reply(exchange, 413, "Request body over " + MAX_BODY_BYTES + " bytes\n");
+                return;
+            }
+            List<Event> events;
+            try {
+                events = parse(body);
+            } catch (IllegalArgumentException e) {
+                reply(exchange, 400, e.getMessage() + "\n");
+                return;
+            }
+            // Only once the body is known to be good, since the daemon creates
+            // a tenant the first time it is asked for
+            EventIngestor ingestor;
+            try {
+                ingestor = target.ingestor(tenantId);
+            } catch (IllegalArgumentException e) {
+                ingestor = null;
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Couldn't open tenant " + tenantId + ": " + e);
+                reply(exchange, 500, "Couldn't open tenant\n");
+                return;
+            }
+            if (ingestor == null) {
+                reply(exchange, 404, "No such tenant\n");
+                return;
+            }
+            List<Event> added = ingestor.submit(events).get(SAVE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            StringBuilder ids = new StringBuilder(added.size() * 8);
+            for (Event event : added) {
+                ids.append(event.getId()).append('\n');
+            }
+            reply(exchange, 201, ids.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            replyQuietly(exchange, 503, "Not accepting events\n");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalStateException) {
+                replyQuietly(exchange, 503, "Not accepting events\n");
+            } else {
+                System.out.println("Ingestion failed: " + e.getCause());
+                replyQuietly(exchange, 500, "Couldn't save events\n");
+            }
+        } catch (TimeoutException e) {
+            // Still queued or being saved; they may yet be added
+            System.out.println("Ingestion timed out after " + SAVE_TIMEOUT_SECONDS + " s");
+            replyQuietly(exchange, 503, "Timed out saving events\n");
+        }
+    }
+
+    /** Parses a CSV body; throws IllegalArgumentException naming the first bad record. */
+    static List<Event> parse(byte[] body) {
+        CsvFormat format = new CsvFormat();
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> events = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                add(events, format.nextRecord(line), format, now, lineNumber);
+            }
+            add(events, format.lastRecord(), format, now, lineNumber);
+        } catch (IOException e) {
+            // Reading from memory
+            throw new IllegalStateException(e);
+        }
+        return events;
+    }
+
+    private static void add(List<Event> events, String record, CsvFormat format, LocalDateTime now, int line) {
+        if (record == null) {
+            return;
+        }
+        try {
+            Event event = format.parse(record, now);
+            if (event.getTitle().isBlank()) {
+                throw new IllegalArgumentException("Missing title");
+            }
+            // Unlike a file import, which takes past events as history, a
+            // one-off posted here is wanted: one whose minute has come fires now
+            if (event.getRecurrence() == null && event.isNotified()) {
+                event = event.withNotified(false);
+            }
+            events.add(event);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            // A quoted field can span lines; this is the line the record ends on
+            throw new IllegalArgumentException("Line " + line + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Null if the body is over the limit
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+        return body.length > MAX_BODY_BYTES ? null : body;
+    }
+
+    private static void reply(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // For errors that may strike after the reply has started
+    private static void replyQuietly(HttpExchange exchange, int status, String text) {
+        try {
+            reply(exchange, status, text);
+        } catch (IOException | RuntimeException e) {
+            // Client gone or reply already sent
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package eventreminder.core;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One partition of a {@link ShardedScheduler}'s events, held by this process
+ * under its lease: an exclusive lock on the partition's lease file. The
+ * operating system drops the lock when the process exits or dies, which is
+ * what lets another process take the partition over. The lease has no
+ * expiry, so a process that hangs without dying keeps its partitions.
+ *
+ * Scheduler keys pack the partition number above the event id, so one
+ * scheduler serves every partition a process holds.
+ */
+class Partition {
+    private static final int ID_BITS = 40;
+    private static final int RETRY_SECONDS = 5;
+
+    final int number;
+    private final Path directory;
+    private final FileChannel leaseFile;
+    private final FileLock lease;
+    private final EventScheduler<Long> scheduler;
+    private final EventStore store = new EventStore(new ColumnarEventTable());
+    private final EventJournal journal;
+    // Deliveries hold the read lock; release takes the write lock to wait them out
+    private final ReentrantReadWriteLock deliveries = new ReentrantReadWriteLock();
+    private volatile boolean released;
+
+    private Partition(int number, Path directory, FileChannel leaseFile, FileLock lease,
+            EventScheduler<Long> scheduler) {
+        this.number = number;
+        this.directory = directory;
+        this.leaseFile = leaseFile;
+        this.lease = lease;
+        this.scheduler = scheduler;
+        this.journal = new EventJournal(directory, 10000);
+    }
+
+    /** Takes the partition's lease, or returns null if another process holds it. Call {@link #open} next. */
+    static Partition acquire(int number, Path sharedDirectory, EventScheduler<Long> scheduler)
+            throws IOException {
+        Path leasePath = sharedDirectory.resolve("leases").resolve(name(number) + ".lock");
+        FileChannel channel = FileChannel.open(leasePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by another member in this JVM
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            return null;
+        }
+        Path directory = sharedDirectory.resolve("partitions").resolve(name(number));
+        return new Partition(number, directory, channel, lock, scheduler);
+    }
+
+    /**
+     * Loads the partition's events and schedules them; anything that fell
+     * due while the partition had no owner fires straight away. If this
+     * fails the lease is given up again.
+     */
+    void open() throws IOException {
+        try {
+            Files.createDirectories(directory.resolve("inbox"));
+            Files.createDirectories(directory.resolve("importing"));
+            store.addListener(new ScheduleUpdater<>(scheduler, this::key));
+            store.load(journal.load());
+            store.addListener(journal);
+            journal.start(store::snapshot);
+        } catch (IOException | RuntimeException e) {
+            released = true;
+            for (Event event : store.events()) {
+                scheduler.cancel(key(event.getId()));
+            }
+            lease.release();
+            leaseFile.close();
+            throw e;
+        }
+    }
+
+    static String name(int number) {
+        return String.format("%03d", number);
+    }
+
+    static int partitionOf(long key) {
+        return (int) (key >>> ID_BITS);
+    }
+
+    static long eventIdOf(long key) {
+        return key & ((1L << ID_BITS) - 1);
+    }
+
+    long key(long eventId) {
+        return ((long) number << ID_BITS) | eventId;
+    }
+
+    int size() {
+        return store.size();
+    }
+
+    /**
+     * Adds the events in files dropped into the inbox. A file is read in full
+     * and given a block of ids, then moved to {@code importing/} under a name
+     * recording those ids and the time it was read, and only then are its
+     * events added; it is deleted once they are in the journal. A file left
+     * in {@code importing/} by a crash or an error is finished from there,
+     * adding just the events that didn't make it, under the same ids, so no
+     * reminder is added (and delivered) twice.
+     */
+    void importInbox() throws IOException, InterruptedException {
+        for (Path file : list(directory.resolve("importing"))) {
+            if (released) {
+                return;
+            }
+            String[] parts = file.getFileName().toString().split("-", 3);
+            LocalDateTime readAt = LocalDateTime.ofEpochSecond(Long.parseLong(parts[1]), 0, ZoneOffset.UTC);
+            finishImport(file, Long.parseLong(parts[0]), read(file, readAt));
+        }
+        for (Path file : list(directory.resolve("inbox"))) {
+            String fileName = file.getFileName().toString();
+            // Dot files are still being written
+            if (released || fileName.startsWith(".")) {
+                continue;
+            }
+            LocalDateTime now = LocalDateTime.now().withNano(0);
+            List<Event> events;
+            try {
+                events = read(file, now);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Partition " + name(number) + ": dropping " + fileName + ": " + e.getMessage());
+                Files.delete(file);
+                continue;
+            }
+            long firstId = store.reserveIds(events.size());
+            Path importing = directory.resolve("importing")
+                .resolve(firstId + "-" + now.toEpochSecond(ZoneOffset.UTC) + "-" + fileName);
+            Files.move(file, importing, StandardCopyOption.ATOMIC_MOVE);
+            finishImport(importing, firstId, events);
+        }
+    }
+
+    // The file's events in file order, with id 0
+    private List<Event> read(Path file, LocalDateTime now) throws IOException, InterruptedException {
+        // Read into a scratch store, whose ids then give each event's place in the file
+        EventStore scratch = new EventStore();
+        EventImporter.Result result = new EventImporter(scratch, 1).importFile(file, now,
+            (bytesRead, totalBytes, imported) -> { });
+        if (result.getSkipped() > 0) {
+            System.out.println("Partition " + name(number) + ": skipped " + result.getSkipped()
+                + " events in " + file.getFileName() + ": " + result.getFirstError());
+        }
+        Event[] events = new Event[scratch.size()];
+        for (Event event : scratch.events()) {
+            events[(int) event.getId() - 1] = event;
+        }
+        return Arrays.asList(events);
+    }
+
+    private void finishImport(Path file, long firstId, List<Event> events)
+            throws IOException, InterruptedException {
+        List<Event> numbered = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            numbered.add(events.get(i).withId(firstId + i));
+        }
+        store.addAllWithIds(numbered);
+        journal.flush();
+        Files.delete(file);
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * Delivers the event if it is still due, then saves that it was. Delivery
+     * comes first, so a crash in between means the next owner delivers it
+     * again, with the same idempotency key, rather than never.
+     */
+    void deliver(long eventId, ShardedScheduler.DeliverySink sink, ReminderMetrics metrics) {
+        deliveries.readLock().lock();
+        try {
+            if (released || !lease.isValid()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            Event event = store.get(eventId);
+            if (event == null || event.isNotified() || event.getDateTime().isAfter(now)) {
+                return;
+            }
+            String idempotencyKey = name(number) + "-" + eventId + "@" + event.getDateTime();
+            try {
+                sink.deliver(idempotencyKey, event);
+            } catch (Exception e) {
+                System.out.println("Partition " + name(number) + ": error delivering " + idempotencyKey
+                    + ", retrying: " + e);
+                scheduler.schedule(key(eventId), now.plusSeconds(RETRY_SECONDS));
+                return;
+            }
+            metrics.reminderDelivered(event);
+            metrics.notificationShown();
+            if (store.replace(event, event.advancePast(now))) {
+                journal.flush();
+            }
+        } catch (IOException e) {
+            // Kept and written with the next change; a crash before then delivers it again
+            System.out.println("Partition " + name(number) + ": couldn't save delivery of event " + eventId
+                + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            deliveries.readLock().unlock();
+        }
+    }
+
+    /** Stops delivering, waits for deliveries under way, saves everything and gives up the lease. */
+    void release() throws IOException, InterruptedException {
+        released = true;
+        deliveries.writeLock().lock();
+        try {
+            for (Event event : store.events()) {
+                scheduler.cancel(key(event.getId()));
+            }
+            journal.close(10, TimeUnit.SECONDS);
+        } finally {
+            deliveries.writeLock().unlock();
+            if (lease.isValid()) {
+                lease.release();
+            }
+            leaseFile.close();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package eventreminder.core;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A repeat rule along the lines of an iCalendar RRULE: every {@code interval}
+ * days, weeks, months or years from {@code start}, optionally ending after
+ * {@code count} occurrences or once {@code until} has passed, minus a set of
+ * excluded occurrences.
+ *
+ * Occurrences are never stored. The k-th one is computed straight from the
+ * start, so a monthly series on the 31st comes back to the 31st after a short
+ * month, and {@link #occurrences} generates them lazily. A series costs the
+ * same memory however many times it repeats.
+ */
+public final class Recurrence {
+    public enum Frequency {
+        DAILY(ChronoUnit.DAYS, "day"),
+        WEEKLY(ChronoUnit.WEEKS, "week"),
+        MONTHLY(ChronoUnit.MONTHS, "month"),
+        YEARLY(ChronoUnit.YEARS, "year");
+
+        final ChronoUnit unit;
+        final String noun;
+
+        Frequency(ChronoUnit unit, String noun) {
+            this.unit = unit;
+            this.noun = noun;
+        }
+    }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final LocalDateTime start;
+    private final int count;
+    private final LocalDateTime until;
+    private final NavigableSet<LocalDateTime> exceptions;
+
+    /**
+     * @param count the total number of occurrences including excluded ones, or 0 for no limit
+     * @param until the last time an occurrence may fall on, or null for no limit
+     */
+    public Recurrence(Frequency frequency, int interval, LocalDateTime start, int count, LocalDateTime until,
+            Collection<LocalDateTime> exceptions) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be at least 1: " + interval);
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        this.frequency = Objects.requireNonNull(frequency);
+        this.interval = interval;
+        this.start = Objects.requireNonNull(start);
+        this.count = count;
+        this.until = until;
+        this.exceptions = exceptions.isEmpty()
+            ? Collections.emptyNavigableSet()
+            : Collections.unmodifiableNavigableSet(new TreeSet<>(exceptions));
+    }
+
+    /** Repeats every single day, week, month or year from {@code start}, forever. */
+    public static Recurrence every(Frequency frequency, LocalDateTime start) {
+        return new Recurrence(frequency, 1, start, 0, null, Collections.emptySet());
+    }
+
+    public Frequency getFrequency() { return frequency; }
+    public int getInterval() { return interval; }
+    public LocalDateTime getStart() { return start; }
+    public int getCount() { return count; }
+    public LocalDateTime getUntil() { return until; }
+    public NavigableSet<LocalDateTime> getExceptions() { return exceptions; }
+
+    /** The same rule moved to a new first occurrence. */
+    public Recurrence startingAt(LocalDateTime newStart) {
+        return newStart.equals(start) ? this : new Recurrence(frequency, interval, newStart, count, until, exceptions);
+    }
+
+    /**
+     * The rest of the series from its occurrence {@code pending} on, moved to
+     * start at {@code newStart}. A count limit drops the occurrences before
+     * {@code pending}, so moving a series doesn't lengthen it.
+     */
+    public Recurrence restartedAt(LocalDateTime pending, LocalDateTime newStart) {
+        int remaining = count == 0 ? 0 : (int) Math.max(1, count - indexFrom(pending));
+        if (newStart.equals(start) && remaining == count) {
+            return this;
+        }
+        return new Recurrence(frequency, interval, newStart, remaining, until, exceptions);
+    }
+
+    /** The same rule with its start, end and exceptions truncated to {@code unit}. */
+    public Recurrence truncatedTo(ChronoUnit unit) {
+        LocalDateTime truncatedStart = start.truncatedTo(unit);
+        LocalDateTime truncatedUntil = until == null ? null : until.truncatedTo(unit);
+        TreeSet<LocalDateTime> truncatedExceptions = new TreeSet<>();
+        for (LocalDateTime exception : exceptions) {
+            truncatedExceptions.add(exception.truncatedTo(unit));
+        }
+        if (truncatedStart.equals(start) && Objects.equals(truncatedUntil, until)
+                && truncatedExceptions.equals(exceptions)) {
+            return this;
+        }
+        return new Recurrence(frequency, interval, truncatedStart, count, truncatedUntil, truncatedExceptions);
+    }
+
+    /** The same rule with {@code occurrence} left out. */
+    public Recurrence withException(LocalDateTime occurrence) {
+        if (exceptions.contains(occurrence)) {
+            return this;
+        }
+        TreeSet<LocalDateTime> more = new TreeSet<>(exceptions);
+        more.add(occurrence);
+        return new Recurrence(frequency, interval, start, count, until, more);
+    }
+
+    /** The k-th occurrence counting the start as 0, regardless of exceptions and end conditions. */
+    public LocalDateTime occurrence(long index) {
+        return start.plus(index * interval, frequency.unit);
+    }
+
+    // Index of the first occurrence at or after time, ignoring exceptions and end conditions
+    private long indexFrom(LocalDateTime time) {
+        if (!time.isAfter(start)) {
+            return 0;
+        }
+        long index = frequency.unit.between(start, time) / interval;
+        while (occurrence(index).isBefore(time)) {
+            index++;
+        }
+        return index;
+    }
+
+    /** The first occurrence, or null if every occurrence is excluded. */
+    public LocalDateTime first() {
+        Iterator<LocalDateTime> occurrences = iterator(null);
+        return occurrences.hasNext() ? occurrences.next() : null;
+    }
+
+    /** The first occurrence strictly after {@code time}, or null if the series is over by then. */
+    public LocalDateTime nextAfter(LocalDateTime time) {
+        Iterator<LocalDateTime> occurrences = iterator(time);
+        return occurrences.hasNext() ? occurrences.next() : null;
+    }
+
+    /** All occurrences in order, generated as they are consumed. */
+    public Stream<LocalDateTime> occurrences() {
+        return occurrencesAfter(null);
+    }
+
+    /** The occurrences strictly after {@code time} (or all of them if null), generated as they are consumed. */
+    public Stream<LocalDateTime> occurrencesAfter(LocalDateTime time) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(time),
+            Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    public Iterator<LocalDateTime> iterator(LocalDateTime after) {
+        return new Occurrences(after);
+    }
+
+    /** A short description for display, such as "Every 2 weeks". */
+    public String describe() {
+        return interval == 1 ? "Every " + frequency.noun : "Every " + interval + " " + frequency.noun + "s";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Recurrence)) {
+            return false;
+        }
+        Recurrence other = (Recurrence) o;
+        return frequency == other.frequency
+            && interval == other.interval
+            && count == other.count
+            && start.equals(other.start)
+            && Objects.equals(until, other.until)
+            && exceptions.equals(other.exceptions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(frequency, interval, start, count, until, exceptions);
+    }
+
+    @Override
+    public String toString() {
+        return describe() + " from " + start;
+    }
+
+    private class Occurrences implements Iterator<LocalDateTime> {
+        private long index;
+        private LocalDateTime next;
+
+        Occurrences(LocalDateTime after) {
+            // Jump close to the first occurrence after the given time instead of
+            // walking there from the start. The whole units between start and
+            // after never overshoot, so this lands at or before the answer.
+            if (after != null && after.isAfter(start)) {
+                index = frequency.unit.between(start, after) / interval;
+            }
+            next = advance(after);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public LocalDateTime next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            LocalDateTime result = next;
+            next = advance(null);
+            return result;
+        }
+
+        private LocalDateTime advance(LocalDateTime after) {
+            for (; count == 0 || index < count; index++) {
+                LocalDateTime candidate = occurrence(index);
+                if (until != null && candidate.isAfter(until)) {
+                    return null;
+                }
+                if ((after == null || candidate.isAfter(after)) && !exceptions.contains(candidate)) {
+                    index++;
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+}
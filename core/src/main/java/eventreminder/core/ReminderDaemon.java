@@ -0,0 +1,166 @@
+package eventreminder.core;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Headless host for many users' calendars in one JVM.
+ *
+ * Every subdirectory of the data directory is a {@link Tenant} with its own
+ * store and journal. All tenants share one due-time scheduler, and each due
+ * reminder is delivered on its own virtual thread, so thousands of tenants
+ * cost neither a thread each nor a polling loop each. Tenants keep their
+ * events in a {@link ColumnarEventTable}, optionally with the text off-heap.
+ * Delivery latency is published as {@link ReminderMetrics} over JMX and JFR.
+ *
+ * Other programs can add events over HTTP on loopback with
+ * {@code --ingest-port PORT}; see {@link IngestionServer}.
+ *
+ * Run with {@code java -jar core/target/event-reminder-core-*.jar [--data-dir DIR] [--off-heap]
+ * [--ingest-port PORT]}.
+ */
+public class ReminderDaemon {
+    /** Where due reminders go. Called on a virtual thread; may block. */
+    public interface ReminderSink {
+        void deliver(String tenantId, Event event) throws Exception;
+    }
+
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final Path dataDirectory;
+    private final ReminderSink sink;
+    private final boolean offHeapText;
+    private final ConcurrentHashMap<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final ReminderMetrics metrics = new ReminderMetrics("daemon");
+    private final EventScheduler<TenantEvent> scheduler =
+        new EventScheduler<>("reminder-daemon-scheduler", this::dispatch, metrics);
+    private final ExecutorService delivery = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ReminderDaemon(Path dataDirectory, ReminderSink sink) {
+        this(dataDirectory, sink, false);
+    }
+
+    public ReminderDaemon(Path dataDirectory, ReminderSink sink, boolean offHeapText) {
+        this.dataDirectory = dataDirectory;
+        this.sink = sink;
+        this.offHeapText = offHeapText;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path dataDirectory = Paths.get("tenants");
+        boolean offHeapText = false;
+        int ingestPort = -1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--data-dir") && i + 1 < args.length) {
+                dataDirectory = Paths.get(args[++i]);
+            } else if (args[i].equals("--off-heap")) {
+                offHeapText = true;
+            } else if (args[i].equals("--ingest-port") && i + 1 < args.length) {
+                ingestPort = Integer.parseInt(args[++i]);
+            }
+        }
+        ReminderDaemon daemon = new ReminderDaemon(dataDirectory, (tenantId, event) ->
+            System.out.println("[" + tenantId + "] Reminder: " + event.getTitle()
+                + " (" + event.getDateTime().format(TIME_FORMAT) + ")"), offHeapText);
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::close));
+        long start = System.nanoTime();
+        daemon.start();
+        System.out.println("Reminder daemon serving " + daemon.tenantCount() + " tenants from " + dataDirectory
+            + " (loaded in " + (System.nanoTime() - start) / 1_000_000 + " ms)");
+        if (ingestPort >= 0) {
+            // Tenants are created on first use, as over the Java API
+            IngestionServer ingestion = new IngestionServer(ingestPort,
+                tenantId -> tenantId == null ? null : daemon.tenant(tenantId).getIngestor());
+            ingestion.start();
+            System.out.println("Accepting events on http://localhost:" + ingestion.getPort()
+                + "/tenants/{id}/events");
+        }
+        Thread.currentThread().join();
+    }
+
+    /** Opens every tenant found in the data directory, in parallel, and starts delivering. */
+    public void start() throws IOException, InterruptedException {
+        Files.createDirectories(dataDirectory);
+        metrics.setStoreSize(() -> tenants.values().stream().mapToInt(tenant -> tenant.getStore().size()).sum());
+        metrics.register();
+        scheduler.start();
+        List<Future<Tenant>> opening = new ArrayList<>();
+        try (ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor();
+             DirectoryStream<Path> directories = Files.newDirectoryStream(dataDirectory, Files::isDirectory)) {
+            for (Path directory : directories) {
+                String id = directory.getFileName().toString();
+                if (TENANT_ID.matcher(id).matches()) {
+                    opening.add(loaders.submit(() -> tenant(id)));
+                }
+            }
+        }
+        for (Future<Tenant> future : opening) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                System.out.println("Couldn't open tenant: " + e.getCause());
+            }
+        }
+    }
+
+    /** Returns the tenant, opening it (and creating its directory) on first use. */
+    public Tenant tenant(String id) throws IOException {
+        if (!TENANT_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid tenant id: " + id);
+        }
+        // Registered before loading so reminders that fall due mid-load find their tenant
+        Tenant tenant = tenants.computeIfAbsent(id, key -> new Tenant(key, dataDirectory.resolve(key),
+            new ColumnarEventTable(offHeapText), scheduler, metrics));
+        try {
+            tenant.open();
+        } catch (IOException | RuntimeException e) {
+            tenants.remove(id, tenant);
+            throw e;
+        }
+        return tenant;
+    }
+
+    public int tenantCount() {
+        return tenants.size();
+    }
+
+    public ReminderMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void close() {
+        scheduler.stop();
+        metrics.unregister();
+        delivery.shutdown();
+        try {
+            delivery.awaitTermination(10, TimeUnit.SECONDS);
+            for (Tenant tenant : tenants.values()) {
+                tenant.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Scheduler thread: hand straight off so one slow tenant can't delay the rest
+    private void dispatch(TenantEvent key) {
+        Tenant tenant = tenants.get(key.tenantId);
+        if (tenant != null) {
+            delivery.execute(() -> tenant.deliver(key.eventId, sink));
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package eventreminder.core;
+
+import java.lang.management.ManagementFactory;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Latency and throughput of the reminder path, cheap enough to leave on:
+ * every sample is a few lock-free atomic adds. Published as the JMX MBean
+ * {@code eventreminder:type=ReminderMetrics,name=NAME} once
+ * {@link #register}ed, and as JFR events under "Event Reminder" whenever a
+ * flight recording has them enabled: one per reminder fired, scheduler scan
+ * and dispatch, and list rebuild, plus a once-a-second "Reminder Statistics"
+ * with the store size and totals while registered.
+ */
+public class ReminderMetrics implements ReminderMetricsMXBean {
+    public static final String OBJECT_NAME_PREFIX = "eventreminder:type=ReminderMetrics,name=";
+
+    private final LatencyHistogram fireLag = new LatencyHistogram();
+    private final LatencyHistogram schedulerScan = new LatencyHistogram();
+    private final LatencyHistogram dispatch = new LatencyHistogram();
+    private final LatencyHistogram listRebuild = new LatencyHistogram();
+    private final LongAdder remindersDelivered = new LongAdder();
+    private final LongAdder notificationsShown = new LongAdder();
+    private volatile IntSupplier storeSize = () -> 0;
+    private final String name;
+    private final Runnable statistics = this::emitStatistics;
+
+    /**
+     * {@code name} tells this instance apart from others in the same JVM,
+     * such as several sharded members, in its JMX name and JFR events.
+     */
+    public ReminderMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Publishes these metrics over JMX and JFR; logs and carries on if JMX fails. */
+    public void register() {
+        FlightRecorder.addPeriodicEvent(ReminderStatistics.class, statistics);
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName());
+        } catch (JMException e) {
+            System.out.println("Couldn't publish metrics over JMX: " + e);
+        }
+    }
+
+    public void unregister() {
+        FlightRecorder.removePeriodicEvent(statistics);
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName());
+        } catch (JMException e) {
+            // Never registered
+        }
+    }
+
+    private ObjectName objectName() throws MalformedObjectNameException {
+        boolean plain = name.chars().noneMatch(c -> ",=:\"*?\\\n".indexOf(c) >= 0);
+        return new ObjectName(OBJECT_NAME_PREFIX + (plain ? name : ObjectName.quote(name)));
+    }
+
+    /** Where {@link #getStoreSize} comes from. */
+    public void setStoreSize(IntSupplier storeSize) {
+        this.storeSize = storeSize;
+    }
+
+    /** Records that {@code event}, in the version that fell due, has reached the user. */
+    public void reminderDelivered(Event event) {
+        long lagMillis = System.currentTimeMillis()
+            - event.getDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        fireLag.record(lagMillis);
+        remindersDelivered.increment();
+        ReminderFired fired = new ReminderFired();
+        if (fired.isEnabled()) {
+            fired.eventId = event.getId();
+            fired.due = event.getDateTime().toString();
+            fired.lag = lagMillis;
+            fired.commit();
+        }
+    }
+
+    public void notificationShown() {
+        notificationsShown.increment();
+    }
+
+    /** Records {@code nanos} spent on the EDT rebuilding a list of {@code size} events. */
+    public void listRebuilt(String operation, int size, long nanos) {
+        listRebuild.record(nanos / 1000);
+        ListRebuild rebuild = new ListRebuild();
+        if (rebuild.isEnabled()) {
+            rebuild.operation = operation;
+            rebuild.size = size;
+            rebuild.stall = nanos;
+            rebuild.commit();
+        }
+    }
+
+    void schedulerScanned(long nanos) {
+        schedulerScan.record(nanos / 1000);
+        SchedulerScan scan = new SchedulerScan();
+        if (scan.isEnabled()) {
+            scan.time = nanos;
+            scan.commit();
+        }
+    }
+
+    void dispatched(long nanos) {
+        dispatch.record(nanos / 1000);
+        SchedulerDispatch dispatched = new SchedulerDispatch();
+        if (dispatched.isEnabled()) {
+            dispatched.time = nanos;
+            dispatched.commit();
+        }
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getFireLagMillis() {
+        return fireLag.snapshot();
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getSchedulerScanMicros() {
+        return schedulerScan.snapshot();
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getDispatchMicros() {
+        return dispatch.snapshot();
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getListRebuildMicros() {
+        return listRebuild.snapshot();
+    }
+
+    @Override
+    public long getRemindersDelivered() {
+        return remindersDelivered.sum();
+    }
+
+    @Override
+    public long getNotificationsShown() {
+        return notificationsShown.sum();
+    }
+
+    @Override
+    public int getStoreSize() {
+        return storeSize.getAsInt();
+    }
+
+    // Periodic JFR hook, on the recorder's thread
+    private void emitStatistics() {
+        ReminderStatistics stats = new ReminderStatistics();
+        stats.metrics = name;
+        stats.storeSize = getStoreSize();
+        stats.remindersDelivered = getRemindersDelivered();
+        stats.notificationsShown = getNotificationsShown();
+        stats.commit();
+    }
+
+    @Override
+    public String toString() {
+        return "Fire lag ms: " + fireLag.snapshot() + "; scheduler scan us: " + schedulerScan.snapshot()
+            + "; dispatch us: " + dispatch.snapshot() + "; list rebuild us: " + listRebuild.snapshot()
+            + "; " + getRemindersDelivered() + " reminders in " + getNotificationsShown() + " notifications";
+    }
+
+    // JFR events carry their measured time as a field rather than spanning
+    // it, since the time is measured before we know the event is wanted
+
+    @Name("eventreminder.ReminderFired")
+    @Label("Reminder Fired")
+    @Category("Event Reminder")
+    @Description("A reminder reached the user")
+    @StackTrace(false)
+    static class ReminderFired extends jdk.jfr.Event {
+        @Label("Event Id")
+        long eventId;
+
+        @Label("Due")
+        String due;
+
+        @Label("Lag")
+        @Timespan(Timespan.MILLISECONDS)
+        long lag;
+    }
+
+    @Name("eventreminder.SchedulerDispatch")
+    @Label("Scheduler Dispatch")
+    @Category("Event Reminder")
+    @Description("The scheduler handed a due reminder on")
+    @StackTrace(false)
+    static class SchedulerDispatch extends jdk.jfr.Event {
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+    }
+
+    @Name("eventreminder.SchedulerScan")
+    @Label("Scheduler Scan")
+    @Category("Event Reminder")
+    @Description("The scheduler found the next due reminder")
+    @StackTrace(false)
+    static class SchedulerScan extends jdk.jfr.Event {
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+    }
+
+    @Name("eventreminder.ReminderStatistics")
+    @Label("Reminder Statistics")
+    @Category("Event Reminder")
+    @Description("Store size and running totals; the totals' rate of change is the throughput")
+    @StackTrace(false)
+    @Period("1 s")
+    static class ReminderStatistics extends jdk.jfr.Event {
+        @Label("Metrics")
+        String metrics;
+
+        @Label("Store Size")
+        int storeSize;
+
+        @Label("Reminders Delivered")
+        long remindersDelivered;
+
+        @Label("Notifications Shown")
+        long notificationsShown;
+    }
+
+    @Name("eventreminder.ListRebuild")
+    @Label("Event List Rebuild")
+    @Category("Event Reminder")
+    @Description("The event dispatch thread rebuilt the event list")
+    @StackTrace(false)
+    static class ListRebuild extends jdk.jfr.Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Events")
+        int size;
+
+        @Label("Stall")
+        @Timespan(Timespan.NANOSECONDS)
+        long stall;
+    }
+}
@@ -0,0 +1,26 @@
+package eventreminder.core;
+
+/**
+ * What {@link ReminderMetrics} publishes over JMX. Latencies are histograms
+ * with percentiles; counters only ever grow, so rates come from sampling them.
+ */
+public interface ReminderMetricsMXBean {
+    /** How late reminders reached the user, from their due time, in milliseconds. */
+    LatencyHistogram.Snapshot getFireLagMillis();
+
+    /** Time the scheduler spends finding the next due reminder once woken, in microseconds. */
+    LatencyHistogram.Snapshot getSchedulerScanMicros();
+
+    /** Time the scheduler spends handing a due reminder on, in microseconds. */
+    LatencyHistogram.Snapshot getDispatchMicros();
+
+    /** Time the event dispatch thread spends rebuilding the event list, in microseconds. */
+    LatencyHistogram.Snapshot getListRebuildMicros();
+
+    long getRemindersDelivered();
+
+    /** Notifications shown; several reminders due together share one. */
+    long getNotificationsShown();
+
+    int getStoreSize();
+}
@@ -0,0 +1,61 @@
+package eventreminder.core;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/** Keeps a scheduler in step with a store: arms, re-arms and cancels reminders as events change. */
+public class ScheduleUpdater<K> implements EventStore.Listener {
+    private final EventScheduler<K> scheduler;
+    private final LongFunction<K> keys;
+
+    public ScheduleUpdater(EventScheduler<K> scheduler, LongFunction<K> keys) {
+        this.scheduler = scheduler;
+        this.keys = keys;
+    }
+
+    @Override
+    public void eventAdded(Event event) {
+        if (!event.isNotified()) {
+            scheduler.schedule(keys.apply(event.getId()), event.getDateTime());
+        }
+    }
+
+    @Override
+    public void eventUpdated(Event previous, Event current) {
+        if (current.isNotified()) {
+            scheduler.cancel(keys.apply(current.getId()));
+        } else if (previous.isNotified() || !previous.getDateTime().equals(current.getDateTime())) {
+            scheduler.schedule(keys.apply(current.getId()), current.getDateTime());
+        }
+    }
+
+    @Override
+    public void eventRemoved(Event event) {
+        scheduler.cancel(keys.apply(event.getId()));
+    }
+
+    @Override
+    public void eventsAdded(List<Event> events) {
+        scheduleAll(events);
+    }
+
+    @Override
+    public void eventsLoaded(List<Event> events) {
+        scheduleAll(events);
+    }
+
+    private void scheduleAll(List<Event> events) {
+        Map<K, LocalDateTime> due = new LinkedHashMap<>();
+        for (Event event : events) {
+            if (!event.isNotified()) {
+                due.put(keys.apply(event.getId()), event.getDateTime());
+            }
+        }
+        if (!due.isEmpty()) {
+            scheduler.scheduleAll(due);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package eventreminder.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from the words of each event's title and description to the
+ * ids of the events containing them, kept current as a store listener.
+ *
+ * A query matches events containing every one of its words, each taken as a
+ * prefix so results narrow while the user types. Terms are found through a
+ * hash map, prefixes through a sorted map of the same terms, and each term's
+ * posting list is a sorted id array, so a query costs time in proportion to
+ * the postings it touches rather than to the number of events.
+ *
+ * Thread-safe: store threads update it under a write lock and searches run
+ * in parallel under the read lock.
+ */
+public class SearchIndex implements EventStore.Listener {
+    private static final long[] NO_IDS = new long[0];
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final NavigableMap<String, Postings> sortedTerms = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void eventAdded(Event event) {
+        lock.writeLock().lock();
+        try {
+            index(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eventsAdded(List<Event> events) {
+        eventsLoaded(events);
+    }
+
+    @Override
+    public void eventsLoaded(List<Event> events) {
+        lock.writeLock().lock();
+        try {
+            for (Event event : events) {
+                index(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eventUpdated(Event previous, Event current) {
+        // Firing and rescheduling leave the text alone
+        if (Objects.equals(previous.getTitle(), current.getTitle())
+                && Objects.equals(previous.getDescription(), current.getDescription())) {
+            return;
+        }
+        Set<String> before = tokens(previous);
+        Set<String> after = tokens(current);
+        lock.writeLock().lock();
+        try {
+            for (String term : before) {
+                if (!after.contains(term)) {
+                    removePosting(term, previous.getId());
+                }
+            }
+            for (String term : after) {
+                if (!before.contains(term)) {
+                    addPosting(term, current.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eventRemoved(Event event) {
+        Set<String> removed = tokens(event);
+        lock.writeLock().lock();
+        try {
+            for (String term : removed) {
+                removePosting(term, event.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the events matching every word of {@code query} as a prefix, in
+     * ascending order. A query with no words matches nothing.
+     */
+    public long[] search(String query) {
+        Set<String> words = tokens(query);
+        if (words.isEmpty()) {
+            return NO_IDS;
+        }
+        lock.readLock().lock();
+        try {
+            List<Match> matches = new ArrayList<>(words.size());
+            for (String word : words) {
+                Match match = new Match(sortedTerms.subMap(word, true, word + Character.MAX_VALUE, false).values());
+                if (match.postingCount == 0) {
+                    return NO_IDS;
+                }
+                matches.add(match);
+            }
+            // Start from the rarest word so each later word has the fewest candidates to check
+            matches.sort(Comparator.comparingLong(match -> match.postingCount));
+            long[] candidates = union(matches.get(0).postings);
+            for (int i = 1; i < matches.size() && candidates.length > 0; i++) {
+                candidates = retainMatching(candidates, matches.get(i));
+            }
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The distinct lower-case words of {@code text}: runs of letters and digits. */
+    public static Set<String> tokens(String text) {
+        Set<String> words = new HashSet<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static Set<String> tokens(Event event) {
+        Set<String> words = tokens(event.getTitle());
+        words.addAll(tokens(event.getDescription()));
+        return words;
+    }
+
+    private void index(Event event) {
+        for (String term : tokens(event)) {
+            addPosting(term, event.getId());
+        }
+    }
+
+    private void addPosting(String term, long id) {
+        Postings postings = terms.get(term);
+        if (postings == null) {
+            postings = new Postings();
+            terms.put(term, postings);
+            sortedTerms.put(term, postings);
+        }
+        postings.add(id);
+    }
+
+    private void removePosting(String term, long id) {
+        Postings postings = terms.get(term);
+        if (postings != null && postings.remove(id) && postings.size == 0) {
+            terms.remove(term);
+            sortedTerms.remove(term);
+        }
+    }
+
+    // Sorted, distinct ids appearing in any of the posting lists
+    private static long[] union(Collection<Postings> matching) {
+        if (matching.size() == 1) {
+            Postings only = matching.iterator().next();
+            return Arrays.copyOf(only.ids, only.size);
+        }
+        long maxId = 0;
+        int total = 0;
+        for (Postings postings : matching) {
+            maxId = Math.max(maxId, postings.ids[postings.size - 1]);
+            total += postings.size;
+        }
+        if (maxId >= Integer.MAX_VALUE) {
+            return sortedUnion(matching, total);
+        }
+        BitSet union = new BitSet((int) maxId + 1);
+        for (Postings postings : matching) {
+            for (int i = 0; i < postings.size; i++) {
+                union.set((int) postings.ids[i]);
+            }
+        }
+        long[] ids = new long[union.cardinality()];
+        int n = 0;
+        for (int id = union.nextSetBit(0); id >= 0; id = union.nextSetBit(id + 1)) {
+            ids[n++] = id;
+        }
+        return ids;
+    }
+
+    private static long[] sortedUnion(Collection<Postings> matching, int total) {
+        long[] all = new long[total];
+        int n = 0;
+        for (Postings postings : matching) {
+            System.arraycopy(postings.ids, 0, all, n, postings.size);
+            n += postings.size;
+        }
+        Arrays.sort(all);
+        int distinct = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (distinct == 0 || all[distinct - 1] != all[i]) {
+                all[distinct++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, distinct);
+    }
+
+    // Keeps the candidates that also match another word. A few candidates are
+    // looked up in that word's posting lists directly; many are checked
+    // against a bitmap of all its postings.
+    private static long[] retainMatching(long[] candidates, Match match) {
+        long[] kept = new long[candidates.length];
+        int n = 0;
+        long probeCost = (long) candidates.length * match.postings.size() * 20;
+        long maxCandidate = candidates[candidates.length - 1];
+        if (probeCost > match.postingCount && maxCandidate < Integer.MAX_VALUE) {
+            BitSet present = new BitSet((int) maxCandidate + 1);
+            for (Postings postings : match.postings) {
+                for (int i = 0; i < postings.size && postings.ids[i] <= maxCandidate; i++) {
+                    present.set((int) postings.ids[i]);
+                }
+            }
+            for (long id : candidates) {
+                if (present.get((int) id)) {
+                    kept[n++] = id;
+                }
+            }
+            return Arrays.copyOf(kept, n);
+        }
+        for (long id : candidates) {
+            for (Postings postings : match.postings) {
+                if (Arrays.binarySearch(postings.ids, 0, postings.size, id) >= 0) {
+                    kept[n++] = id;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(kept, n);
+    }
+
+    // The posting lists of all terms starting with one query word
+    private static class Match {
+        final Collection<Postings> postings;
+        final long postingCount;
+
+        Match(Collection<Postings> postings) {
+            this.postings = postings;
+            long count = 0;
+            for (Postings list : postings) {
+                count += list.size;
+            }
+            this.postingCount = count;
+        }
+    }
+
+    // Sorted ids. New events get increasing ids, so adding is nearly always an append.
+    private static class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, id);
+            } else {
+                insertAt(size, id);
+            }
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        private void insertAt(int position, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
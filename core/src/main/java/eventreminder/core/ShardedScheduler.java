@@ -0,0 +1,313 @@
+package eventreminder.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reminder delivery shared between several processes on one machine.
+ *
+ * The events live in a shared directory split into a fixed number of
+ * partitions, each with its own journal and an inbox that new event files
+ * (CSV or iCalendar) are dropped into. A file's events all go to the one
+ * partition its name hashes to, so a large import is spread by splitting
+ * it into several files. A process delivers the reminders of
+ * the partitions it holds leases on; a lease is an exclusive lock on the
+ * partition's file under {@code leases/}. Every second each process checks
+ * in: it counts the live processes (each holds a lock on its own file under
+ * {@code members/}), gives up partitions beyond its fair share and takes free
+ * ones up to it. When a process exits or dies the operating system releases
+ * its locks and the others pick up its partitions on their next check-in.
+ * Locks don't expire, so a process that hangs keeps its partitions until it
+ * is killed.
+ *
+ * A reminder is delivered before it is saved as delivered, so none is lost
+ * to a crash; one that was in flight when its owner died is delivered again
+ * by the next owner. Each delivery carries an idempotency key, the same on
+ * every attempt, for the receiver to drop such repeats by.
+ *
+ * Run with {@code java -cp core/target/event-reminder-core-*.jar
+ * eventreminder.core.ShardedScheduler --shared DIR [--partitions 16] [--member NAME]
+ * [--delivery-log FILE]}, or add events with {@code --shared DIR --drop FILE}.
+ */
+public class ShardedScheduler {
+    /** Where due reminders go. Called on a virtual thread; may block. */
+    public interface DeliverySink {
+        void deliver(String idempotencyKey, Event event) throws Exception;
+    }
+
+    private static final long CHECK_IN_MILLIS = 1000;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final Path sharedDirectory;
+    private final String member;
+    private final DeliverySink sink;
+    private final int partitionCount;
+    private final Map<Integer, Partition> partitions = new ConcurrentHashMap<>();
+    private final ReminderMetrics metrics;
+    private final EventScheduler<Long> scheduler;
+    private final ExecutorService delivery = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService leases = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sharded-scheduler-leases");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private FileChannel memberFile;
+    private FileLock memberLock;
+
+    /**
+     * {@code partitions} is only used when creating the shared directory;
+     * after that the number it was created with applies.
+     */
+    public ShardedScheduler(Path sharedDirectory, int partitions, String member, DeliverySink sink)
+            throws IOException {
+        this.sharedDirectory = sharedDirectory;
+        this.member = member;
+        this.sink = sink;
+        this.metrics = new ReminderMetrics(member);
+        this.scheduler = new EventScheduler<>("sharded-scheduler", this::dispatch, metrics);
+        this.partitionCount = partitionCount(sharedDirectory, partitions);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path shared = null;
+        int partitions = 16;
+        String member = "member-" + ProcessHandle.current().pid();
+        Path deliveryLog = null;
+        List<Path> drops = new ArrayList<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--shared": shared = Paths.get(args[i + 1]); break;
+                case "--partitions": partitions = Integer.parseInt(args[i + 1]); break;
+                case "--member": member = args[i + 1]; break;
+                case "--delivery-log": deliveryLog = Paths.get(args[i + 1]); break;
+                case "--drop": drops.add(Paths.get(args[i + 1])); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (shared == null) {
+            throw new IllegalArgumentException("--shared DIR is required");
+        }
+        if (!drops.isEmpty()) {
+            for (Path file : drops) {
+                System.out.println("Dropped " + file + " into " + drop(shared, partitions, file));
+            }
+            return;
+        }
+        DeliverySink sink = (key, event) -> System.out.println("[" + key + "] Reminder: " + event.getTitle()
+            + " (" + event.getDateTime().format(TIME_FORMAT) + ")");
+        if (deliveryLog != null) {
+            sink = logTo(deliveryLog);
+        }
+        ShardedScheduler sharded = new ShardedScheduler(shared, partitions, member, sink);
+        Runtime.getRuntime().addShutdownHook(new Thread(sharded::close));
+        sharded.start();
+        System.out.println(member + " delivering reminders from " + shared + " (" + sharded.partitionCount
+            + " partitions)");
+        Thread.currentThread().join();
+    }
+
+    /**
+     * Moves {@code file} (.csv or .ics) into the inbox of a partition picked
+     * by hashing its name, where the partition's owner will import it; all
+     * its events land in that partition. Returns the path it was moved to.
+     */
+    public static Path drop(Path sharedDirectory, int partitions, Path file) throws IOException {
+        int count = partitionCount(sharedDirectory, partitions);
+        String fileName = file.getFileName().toString();
+        int partition = Math.floorMod(fileName.hashCode(), count);
+        Path inbox = sharedDirectory.resolve("partitions").resolve(Partition.name(partition)).resolve("inbox");
+        Files.createDirectories(inbox);
+        // Copied under a dot name first, so the owner never sees half a file
+        Path temp = inbox.resolve("." + fileName + ".tmp");
+        Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+        Path target = inbox.resolve(fileName);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(file);
+        return target;
+    }
+
+    public void start() throws IOException {
+        Files.createDirectories(sharedDirectory.resolve("members"));
+        memberFile = FileChannel.open(sharedDirectory.resolve("members").resolve(member + ".lock"),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        memberLock = memberFile.tryLock();
+        if (memberLock == null) {
+            memberFile.close();
+            throw new IllegalStateException("Member " + member + " is already running");
+        }
+        metrics.setStoreSize(() -> partitions.values().stream().mapToInt(Partition::size).sum());
+        metrics.register();
+        scheduler.start();
+        leases.scheduleWithFixedDelay(this::checkIn, 0, CHECK_IN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /** The partitions this process holds right now. */
+    public List<Integer> ownedPartitions() {
+        List<Integer> owned = new ArrayList<>(partitions.keySet());
+        owned.sort(null);
+        return owned;
+    }
+
+    public ReminderMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** Hands every partition back, so the other processes can take them over at once. */
+    public void close() {
+        leases.shutdown();
+        try {
+            leases.awaitTermination(10, TimeUnit.SECONDS);
+            for (Partition partition : new ArrayList<>(partitions.values())) {
+                release(partition);
+            }
+            scheduler.stop();
+            delivery.shutdown();
+            delivery.awaitTermination(10, TimeUnit.SECONDS);
+            metrics.unregister();
+            if (memberLock != null) {
+                memberLock.release();
+                memberFile.close();
+                Files.deleteIfExists(sharedDirectory.resolve("members").resolve(member + ".lock"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.out.println("Error leaving " + sharedDirectory + ": " + e);
+        }
+    }
+
+    // Lease thread: rebalance, then import what was dropped into the partitions held
+    private void checkIn() {
+        try {
+            int live = liveMembers();
+            int share = (partitionCount + live - 1) / live;
+            List<Integer> owned = ownedPartitions();
+            for (int i = owned.size() - 1; i >= share; i--) {
+                release(partitions.get(owned.get(i)));
+            }
+            // Start from a different place per member, so members starting
+            // together don't all race for partition 0
+            int offset = Math.floorMod(member.hashCode(), partitionCount);
+            for (int i = 0; i < partitionCount && partitions.size() < share; i++) {
+                int number = (offset + i) % partitionCount;
+                if (!partitions.containsKey(number)) {
+                    Partition partition = Partition.acquire(number, sharedDirectory, scheduler);
+                    if (partition != null) {
+                        // Registered before loading, so reminders already overdue find it
+                        partitions.put(number, partition);
+                        try {
+                            partition.open();
+                        } catch (IOException | RuntimeException e) {
+                            partitions.remove(number);
+                            throw e;
+                        }
+                        System.out.println(member + ": took partition " + Partition.name(number)
+                            + " (" + partition.size() + " events)");
+                    }
+                }
+            }
+            for (Partition partition : partitions.values()) {
+                partition.importInbox();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            System.out.println(member + ": lease check-in failed: " + e);
+        }
+    }
+
+    private void release(Partition partition) throws IOException, InterruptedException {
+        partitions.remove(partition.number);
+        partition.release();
+        System.out.println(member + ": released partition " + Partition.name(partition.number));
+    }
+
+    // Counts the members whose lock files are still locked. A file that can
+    // be locked belongs to a member that has died, and is cleared away.
+    private int liveMembers() throws IOException {
+        int live = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(sharedDirectory.resolve("members"), "*.lock")) {
+            for (Path file : files) {
+                if (file.getFileName().toString().equals(member + ".lock")) {
+                    live++;
+                    continue;
+                }
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    FileLock lock = channel.tryLock();
+                    if (lock == null) {
+                        live++;
+                    } else {
+                        Files.deleteIfExists(file);
+                        lock.release();
+                    }
+                } catch (OverlappingFileLockException e) {
+                    // Another member in this JVM
+                    live++;
+                } catch (NoSuchFileException e) {
+                    // Left between listing and opening
+                }
+            }
+        }
+        return Math.max(live, 1);
+    }
+
+    // Scheduler thread: hand straight off, as in ReminderDaemon
+    private void dispatch(Long key) {
+        Partition partition = partitions.get(Partition.partitionOf(key));
+        if (partition != null) {
+            delivery.execute(() -> partition.deliver(Partition.eventIdOf(key), sink, metrics));
+        }
+    }
+
+    // The first process to start fixes the partition count for good
+    private static int partitionCount(Path sharedDirectory, int requested) throws IOException {
+        Path countFile = sharedDirectory.resolve("partitions.count");
+        Files.createDirectories(sharedDirectory.resolve("leases"));
+        if (!Files.exists(countFile)) {
+            Path temp = sharedDirectory.resolve(".partitions.count." + ProcessHandle.current().pid());
+            Files.writeString(temp, requested + "\n");
+            try {
+                // Fails if another process got there first, whose count then stands
+                Files.createLink(countFile, temp);
+            } catch (FileAlreadyExistsException e) {
+                // Fine
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return Integer.parseInt(Files.readString(countFile).trim());
+    }
+
+    // Appends "key title" per delivery; lines this short are written atomically
+    private static DeliverySink logTo(Path file) throws IOException {
+        OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return (key, event) -> {
+            byte[] line = (key + " " + event.getTitle() + "\n").getBytes(StandardCharsets.UTF_8);
+            synchronized (out) {
+                out.write(line);
+                out.flush();
+            }
+        };
+    }
+}
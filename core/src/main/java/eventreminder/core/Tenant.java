@@ -0,0 +1,104 @@
+package eventreminder.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One user's calendar inside a {@link ReminderDaemon}: its own store, its own
+ * journal directory, and its own cap on in-flight deliveries, so a tenant with
+ * a burst of due reminders or a failing sink can't hold up the others.
+ */
+public class Tenant {
+    private static final int MAX_IN_FLIGHT = 8;
+    private static final int RETRY_SECONDS = 5;
+
+    private final String id;
+    private final EventStore store;
+    private final EventJournal journal;
+    private EventIngestor ingestor;
+    private final Semaphore deliveries = new Semaphore(MAX_IN_FLIGHT);
+    private final EventScheduler<TenantEvent> scheduler;
+    private final ReminderMetrics metrics;
+
+    private boolean opened;
+
+    Tenant(String id, Path directory, EventTable table, EventScheduler<TenantEvent> scheduler,
+            ReminderMetrics metrics) {
+        this.id = id;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.store = new EventStore(table);
+        this.journal = new EventJournal(directory, 10000);
+        store.addListener(new ScheduleUpdater<>(scheduler, eventId -> new TenantEvent(id, eventId)));
+    }
+
+    /** Loads the tenant's saved events; later calls wait for the first to finish. */
+    synchronized void open() throws IOException {
+        if (opened) {
+            return;
+        }
+        store.load(journal.load());
+        store.addListener(journal);
+        journal.start(store::snapshot);
+        ingestor = new EventIngestor(store, journal);
+        ingestor.start();
+        opened = true;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public EventStore getStore() {
+        return store;
+    }
+
+    /** Batches events from other programs into this tenant's store; see {@link IngestionServer}. */
+    public synchronized EventIngestor getIngestor() {
+        return ingestor;
+    }
+
+    /**
+     * Delivers the event if it is still due, then saves that it was. A sink
+     * that fails gets the reminder again a few seconds later; runs on a
+     * delivery virtual thread.
+     */
+    void deliver(long eventId, ReminderDaemon.ReminderSink sink) {
+        try {
+            deliveries.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Event event = store.get(eventId);
+            if (event == null || event.isNotified() || event.getDateTime().isAfter(now)) {
+                return;
+            }
+            try {
+                sink.deliver(id, event);
+            } catch (Exception e) {
+                System.out.println("Tenant " + id + ": error delivering reminder " + eventId + ", retrying: " + e);
+                scheduler.schedule(new TenantEvent(id, eventId), now.plusSeconds(RETRY_SECONDS));
+                return;
+            }
+            metrics.reminderDelivered(event);
+            metrics.notificationShown();
+            // Unless it was edited or deleted meanwhile, which re-arms or cancels it anyway
+            store.replace(event, event.advancePast(now));
+        } finally {
+            deliveries.release();
+        }
+    }
+
+    synchronized void close() throws InterruptedException {
+        if (opened) {
+            ingestor.close();
+            journal.close(10, TimeUnit.SECONDS);
+        }
+    }
+}
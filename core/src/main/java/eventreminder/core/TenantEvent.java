@@ -0,0 +1,26 @@
+package eventreminder.core;
+
+/** Scheduler key for one event of one tenant. */
+final class TenantEvent {
+    final String tenantId;
+    final long eventId;
+
+    TenantEvent(String tenantId, long eventId) {
+        this.tenantId = tenantId;
+        this.eventId = eventId;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof TenantEvent)) {
+            return false;
+        }
+        TenantEvent that = (TenantEvent) other;
+        return eventId == that.eventId && tenantId.equals(that.tenantId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * tenantId.hashCode() + Long.hashCode(eventId);
+    }
+}
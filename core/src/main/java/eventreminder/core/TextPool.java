@@ -0,0 +1,215 @@
+package eventreminder.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Deduplicated, reference-counted strings stored as UTF-8 in one buffer,
+ * which can live off the Java heap. A string is named by an int handle; the
+ * same text interned twice gets the same handle, so a thousand "Weekly sync"
+ * titles cost one copy. Space freed by released strings is reclaimed by
+ * compacting once it makes up half the buffer.
+ *
+ * Not thread-safe: writes need the owner's exclusive lock. {@link #get} only
+ * reads, so concurrent gets under a shared lock are fine.
+ */
+class TextPool {
+    static final int NONE = -1;
+
+    private final boolean direct;
+    private ByteBuffer arena;
+    private int arenaUsed;
+    private int garbage;
+
+    // Per handle
+    private int[] offsets = new int[64];
+    private int[] lengths = new int[64];
+    private int[] references = new int[64];
+    private int[] hashes = new int[64];
+    private int handles;
+    private int[] freeHandles = new int[16];
+    private int freeCount;
+
+    // Open-addressed: handle + 1 at the slot, 0 if empty
+    private int[] table = new int[128];
+    private int live;
+
+    TextPool(boolean direct) {
+        this.direct = direct;
+        this.arena = allocate(4096);
+    }
+
+    /** Returns the handle for {@code text}, taking a reference to it; NONE for null. */
+    int intern(String text) {
+        if (text == null) {
+            return NONE;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int hash = text.hashCode();
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        for (int entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+            int handle = entry - 1;
+            if (hashes[handle] == hash && matches(handle, bytes)) {
+                references[handle]++;
+                return handle;
+            }
+        }
+        int handle = newHandle();
+        offsets[handle] = append(bytes);
+        lengths[handle] = bytes.length;
+        references[handle] = 1;
+        hashes[handle] = hash;
+        // append may have compacted, but the table holds handles, not offsets
+        table[slot] = handle + 1;
+        if (++live * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return handle;
+    }
+
+    void release(int handle) {
+        if (handle == NONE || --references[handle] > 0) {
+            return;
+        }
+        removeFromTable(handle);
+        garbage += lengths[handle];
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+        }
+        freeHandles[freeCount++] = handle;
+    }
+
+    String get(int handle) {
+        if (handle == NONE) {
+            return null;
+        }
+        byte[] bytes = new byte[lengths[handle]];
+        arena.get(offsets[handle], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Distinct strings held. */
+    int size() {
+        return live;
+    }
+
+    /** Bytes of text held, excluding space not yet reclaimed. */
+    long textBytes() {
+        return arenaUsed - garbage;
+    }
+
+    private boolean matches(int handle, byte[] bytes) {
+        if (lengths[handle] != bytes.length) {
+            return false;
+        }
+        int offset = offsets[handle];
+        for (int i = 0; i < bytes.length; i++) {
+            if (arena.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int newHandle() {
+        if (freeCount > 0) {
+            return freeHandles[--freeCount];
+        }
+        if (handles == offsets.length) {
+            int capacity = handles * 2;
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            references = Arrays.copyOf(references, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        return handles++;
+    }
+
+    private int append(byte[] bytes) {
+        if (arenaUsed + bytes.length > arena.capacity()) {
+            if (garbage * 2 > arenaUsed) {
+                compact();
+            }
+            if (arenaUsed + bytes.length > arena.capacity()) {
+                long needed = (long) arenaUsed + bytes.length;
+                long capacity = Math.max(needed, (long) arena.capacity() * 2);
+                if (capacity > Integer.MAX_VALUE - 8) {
+                    if (needed > Integer.MAX_VALUE - 8) {
+                        throw new IllegalStateException("Text pool full");
+                    }
+                    capacity = Integer.MAX_VALUE - 8;
+                }
+                ByteBuffer grown = allocate((int) capacity);
+                grown.put(0, arena, 0, arenaUsed);
+                arena = grown;
+            }
+        }
+        int offset = arenaUsed;
+        arena.put(offset, bytes);
+        arenaUsed += bytes.length;
+        return offset;
+    }
+
+    // Copies the live strings to the front of a buffer sized for them
+    private void compact() {
+        int liveBytes = arenaUsed - garbage;
+        ByteBuffer compacted = allocate(Math.max(4096, liveBytes * 2));
+        int used = 0;
+        for (int slot = 0; slot < table.length; slot++) {
+            int handle = table[slot] - 1;
+            if (handle >= 0) {
+                compacted.put(used, arena, offsets[handle], lengths[handle]);
+                offsets[handle] = used;
+                used += lengths[handle];
+            }
+        }
+        arena = compacted;
+        arenaUsed = used;
+        garbage = 0;
+    }
+
+    private void removeFromTable(int handle) {
+        int mask = table.length - 1;
+        int slot = mix(hashes[handle]) & mask;
+        while (table[slot] != handle + 1) {
+            slot = (slot + 1) & mask;
+        }
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int hole = slot;
+        for (int next = (hole + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+            int home = mix(hashes[table[next] - 1]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+        }
+        table[hole] = 0;
+        live--;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = table;
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry : old) {
+            if (entry != 0) {
+                int slot = mix(hashes[entry - 1]) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = entry;
+            }
+        }
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static int mix(int hash) {
+        int spread = hash * 0x9E3779B9;
+        return spread ^ (spread >>> 16);
+    }
+}
@@ -0,0 +1,33 @@
+package eventreminder.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ColumnarEventTableTest {
+    @Test
+    void seriesStartingWithSecondsAdvancesWhenItFires() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 5, 10, 0, 30);
+        Recurrence weekly = new Recurrence(Recurrence.Frequency.WEEKLY, 1, start, 0, start.plusWeeks(3),
+            List.of(start.plusWeeks(1)));
+        EventStore store = new EventStore(new ColumnarEventTable());
+        long id = store.add("Stand-up", "", start, "Work", weekly).getId();
+        assertEquals(LocalDateTime.of(2026, 1, 5, 10, 0), store.get(id).getDateTime());
+
+        assertNotNull(store.claimDue(id, LocalDateTime.of(2026, 1, 5, 10, 0)));
+        // The excluded week is skipped, and the series moves on rather than
+        // landing back on the minute that just fired
+        assertEquals(LocalDateTime.of(2026, 1, 19, 10, 0), store.get(id).getDateTime());
+        assertNull(store.claimDue(id, LocalDateTime.of(2026, 1, 5, 10, 1)));
+
+        assertNotNull(store.claimDue(id, LocalDateTime.of(2026, 1, 19, 10, 0)));
+        assertEquals(LocalDateTime.of(2026, 1, 26, 10, 0), store.get(id).getDateTime());
+        assertNotNull(store.claimDue(id, LocalDateTime.of(2026, 1, 26, 10, 0)));
+        assertEquals(true, store.get(id).isNotified());
+    }
+}
@@ -0,0 +1,60 @@
+package eventreminder.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class EventIngestorTest {
+    private static final int SUBMITTERS = 8;
+
+    @Test
+    void submissionsRacingCloseAllComplete() throws Exception {
+        LocalDateTime time = LocalDateTime.now().plusDays(1);
+        for (int round = 0; round < 200; round++) {
+            EventStore store = new EventStore();
+            EventIngestor ingestor = new EventIngestor(store, null);
+            ingestor.start();
+            ConcurrentLinkedQueue<CompletableFuture<Event>> submitted = new ConcurrentLinkedQueue<>();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> submitters = new ArrayList<>();
+            for (int t = 0; t < SUBMITTERS; t++) {
+                submitters.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < 50; i++) {
+                            submitted.add(ingestor.submit(new Event(0, "event " + i, "", time, "Work")));
+                        }
+                    } catch (IllegalStateException | InterruptedException e) {
+                        // Closed
+                    }
+                }));
+            }
+            start.countDown();
+            ingestor.close();
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+
+            int added = 0;
+            for (CompletableFuture<Event> future : submitted) {
+                try {
+                    future.get(10, TimeUnit.SECONDS);
+                    added++;
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IllegalStateException, e.toString());
+                }
+            }
+            assertEquals(store.size(), added);
+        }
+    }
+}
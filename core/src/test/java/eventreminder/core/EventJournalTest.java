@@ -0,0 +1,75 @@
+package eventreminder.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EventJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void flushAfterCloseFailsInsteadOfWaitingForever() throws Exception {
+        EventStore store = new EventStore();
+        EventJournal journal = new EventJournal(directory, 10000);
+        store.load(journal.load());
+        store.addListener(journal);
+        journal.start(store::snapshot);
+        store.add("Saved", "", LocalDateTime.now().plusDays(1), "Work");
+        journal.flush();
+        journal.close(10, TimeUnit.SECONDS);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> assertThrows(IllegalStateException.class, journal::flush));
+        assertEquals(1, new EventJournal(directory, 10000).load().size());
+    }
+
+    @Test
+    void failedWriteFailsFlushAndIsWrittenOnceTheDiskIsBack() throws Exception {
+        Path journalDirectory = directory.resolve("journal");
+        EventStore store = new EventStore();
+        EventJournal journal = new EventJournal(journalDirectory, 10000);
+        store.load(journal.load());
+        store.addListener(journal);
+        journal.start(store::snapshot);
+        LocalDateTime time = LocalDateTime.now().plusDays(1);
+        store.add("First", "", time, "Work");
+        journal.flush();
+
+        // The journal file becomes unwritable: its channel is gone and the
+        // directory can't be reopened
+        Field channel = EventJournal.class.getDeclaredField("journal");
+        channel.setAccessible(true);
+        ((FileChannel) channel.get(journal)).close();
+        Path moved = Files.move(journalDirectory, directory.resolve("moved"));
+        Files.createFile(journalDirectory);
+        store.add("Second", "", time, "Work");
+        assertThrows(IOException.class, journal::flush);
+
+        Files.delete(journalDirectory);
+        Files.move(moved, journalDirectory);
+        store.add("Third", "", time, "Work");
+        journal.flush();
+        journal.close(10, TimeUnit.SECONDS);
+
+        List<String> titles = new ArrayList<>();
+        for (Event event : new EventJournal(journalDirectory, 10000).load()) {
+            titles.add(event.getTitle());
+        }
+        assertEquals(List.of("First", "Second", "Third"), titles);
+    }
+}
@@ -0,0 +1,276 @@
+package eventreminder.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Many threads adding, editing, firing and deleting events at once while
+ * others read. The journal compacts every few dozen records, so most
+ * changes race a rollover; what it reloads must match the store exactly.
+ */
+class EventStoreStressTest {
+    private static final int WRITERS = 8;
+    private static final int OPERATIONS = 2000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void hashTableSurvivesConcurrentWritesAndCompaction() throws Exception {
+        concurrentWritesMatchJournal(HashEventTable::new);
+    }
+
+    @Test
+    void columnarTableSurvivesConcurrentWritesAndCompaction() throws Exception {
+        concurrentWritesMatchJournal(ColumnarEventTable::new);
+    }
+
+    @Test
+    void overdueRemindersAddedConcurrentlyAllFire() throws Exception {
+        EventStore store = new EventStore();
+        AtomicInteger fired = new AtomicInteger();
+        EventScheduler<Long> scheduler = new EventScheduler<>("stress-scheduler", id -> {
+            if (store.claimDue(id, LocalDateTime.now()) != null) {
+                fired.incrementAndGet();
+            }
+        });
+        store.addListener(new ScheduleUpdater<>(scheduler, id -> id));
+        scheduler.start();
+        LocalDateTime due = LocalDateTime.now().minusMinutes(1);
+
+        ExecutorService threads = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < WRITERS; t++) {
+            boolean batches = t % 2 == 0;
+            done.add(threads.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    if (batches) {
+                        List<Event> batch = new ArrayList<>();
+                        for (int j = 0; j < 500; j++) {
+                            batch.add(new Event(0, "batch " + j, "", due, "Work"));
+                        }
+                        store.addAll(batch);
+                    } else {
+                        for (int j = 0; j < 500; j++) {
+                            store.add("single " + j, "", due, "Work");
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : done) {
+            future.get();
+        }
+        threads.shutdown();
+
+        int expected = WRITERS * 20 * 500;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (fired.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        scheduler.stop();
+        assertEquals(expected, fired.get());
+        for (Event event : store.events()) {
+            assertTrue(event.isNotified(), "not fired: " + event.getId());
+        }
+    }
+
+    @Test
+    void compactionWaitsForChangesAlreadyJournaled() throws Exception {
+        Path journalDirectory = directory.resolve("journal");
+        EventStore store = new EventStore();
+        EventJournal journal = new EventJournal(journalDirectory, 10);
+        store.load(journal.load());
+        store.addListener(journal);
+        // Holds one add between being journaled and showing up in the table
+        CountDownLatch journaled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        store.addListener(new EventStore.Listener() {
+            @Override
+            public void eventAdded(Event event) {
+                if (event.getTitle().equals("held")) {
+                    journaled.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+        journal.start(store::snapshot);
+
+        LocalDateTime time = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+        Thread held = new Thread(() -> store.add("held", "", time, "Work"));
+        held.start();
+        journaled.await();
+        // Just enough records to roll the journal over once while the add is
+        // held; on another thread, since once compaction waits for the held
+        // add, new writes wait behind it
+        Thread others = new Thread(() -> {
+            for (int i = 0; i < 9; i++) {
+                store.add("other " + i, "", time, "Work");
+            }
+        });
+        others.start();
+        // Gives a compaction that doesn't wait for the held add time to finish
+        Path snapshot = journalDirectory.resolve("events.snapshot");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!Files.exists(snapshot) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        held.join();
+        others.join();
+
+        Path crashed = crashCopy(journal, journalDirectory);
+        journal.close(30, TimeUnit.SECONDS);
+        List<String> titles = new ArrayList<>();
+        for (Event event : new EventJournal(crashed, 10).load()) {
+            titles.add(event.getTitle());
+        }
+        assertEquals(10, titles.size(), "reloaded " + titles);
+        assertTrue(titles.contains("held"), "reloaded " + titles);
+    }
+
+    private void concurrentWritesMatchJournal(Supplier<EventTable> table) throws Exception {
+        EventStore store = new EventStore(table.get());
+        Path journalDirectory = directory.resolve("journal");
+        EventJournal journal = new EventJournal(journalDirectory, 50);
+        store.load(journal.load());
+        store.addListener(journal);
+        journal.start(store::snapshot);
+
+        // Whole minutes, which every table stores exactly
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusHours(1);
+        Map<Long, Boolean> known = new ConcurrentHashMap<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(WRITERS + 2);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < WRITERS; t++) {
+            int thread = t;
+            writers.add(threads.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    LocalDateTime time = base.plusMinutes(random.nextInt(180));
+                    int op = random.nextInt(10);
+                    Long id = pick(known, random);
+                    if (op < 3 || id == null) {
+                        known.put(store.add("t" + thread + "-" + i, "", time, "Work").getId(), true);
+                    } else if (op == 3) {
+                        List<Event> batch = new ArrayList<>();
+                        for (int j = 0; j < 20; j++) {
+                            batch.add(new Event(0, "b" + thread + "-" + i + "-" + j, "", time, "Home"));
+                        }
+                        for (Event added : store.addAll(batch)) {
+                            known.put(added.getId(), true);
+                        }
+                    } else if (op < 7) {
+                        String title = "edit " + thread + "-" + i;
+                        store.update(id, e -> e.withDetails(title, e.getDescription(), time, e.getCategory()));
+                    } else if (op < 9) {
+                        store.claimDue(id, LocalDateTime.now());
+                    } else {
+                        store.remove(id);
+                        known.remove(id);
+                    }
+                }
+                return null;
+            }));
+        }
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(threads.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (writing.get()) {
+                    for (Event event : store.events()) {
+                        event.getTitle();
+                    }
+                    Long id = pick(known, random);
+                    if (id != null) {
+                        store.get(id);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        writing.set(false);
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        threads.shutdown();
+        Path crashed = crashCopy(journal, journalDirectory);
+        journal.close(30, TimeUnit.SECONDS);
+
+        Map<Long, Event> expected = new HashMap<>();
+        for (Event event : store.events()) {
+            expected.put(event.getId(), event);
+        }
+        Map<Long, Event> reloaded = new HashMap<>();
+        for (Event event : new EventJournal(crashed, 50).load()) {
+            reloaded.put(event.getId(), event);
+        }
+        Set<Long> missing = new TreeSet<>(expected.keySet());
+        missing.removeAll(reloaded.keySet());
+        Set<Long> extra = new TreeSet<>(reloaded.keySet());
+        extra.removeAll(expected.keySet());
+        assertTrue(missing.isEmpty() && extra.isEmpty(), "journal lost " + missing + ", kept deleted " + extra);
+        for (Event event : expected.values()) {
+            assertTrue(event.isSameVersion(reloaded.get(event.getId())),
+                "journal has " + reloaded.get(event.getId()) + " for " + event);
+        }
+    }
+
+    // What is on disk once everything is flushed, as a crash would leave it;
+    // closing compacts once more, which would paper over a bad snapshot
+    private Path crashCopy(EventJournal journal, Path journalDirectory) throws Exception {
+        journal.flush();
+        Path crashed = Files.createDirectory(directory.resolve("crashed"));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(journalDirectory)) {
+            for (Path file : files) {
+                Files.copy(file, crashed.resolve(file.getFileName()));
+            }
+        }
+        return crashed;
+    }
+
+    private static Long pick(Map<Long, Boolean> known, ThreadLocalRandom random) {
+        if (known.isEmpty()) {
+            return null;
+        }
+        long probe = random.nextLong(1, known.size() * 2L + 2);
+        return known.containsKey(probe) ? probe : null;
+    }
+}
@@ -0,0 +1,65 @@
+package eventreminder.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class IngestionServerTest {
+
+    @Test
+    void eventDueThisMinuteOrEarlierIsArmedToFire() {
+        String now = LocalDateTime.now().format(CsvFormat.DATE_TIME);
+        String earlier = LocalDateTime.now().minusHours(2).format(CsvFormat.DATE_TIME);
+        List<Event> events = IngestionServer.parse(("Call back,now," + now + ",Work\n"
+            + "Missed,earlier," + earlier + ",Work\n").getBytes(StandardCharsets.UTF_8));
+        assertEquals(2, events.size());
+        assertFalse(events.get(0).isNotified());
+        assertFalse(events.get(1).isNotified());
+    }
+
+    @Test
+    void badLineRejectsTheRequest() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> IngestionServer.parse("Fine,,2099-01-01 09:00\nBroken,,tomorrow\n".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("Line 2", e.getMessage().substring(0, 6));
+    }
+
+    @Test
+    void tenantIsOnlyOpenedForAValidBody() throws Exception {
+        AtomicInteger opened = new AtomicInteger();
+        IngestionServer server = new IngestionServer(0, tenantId -> {
+            opened.incrementAndGet();
+            throw new IOException("disk full");
+        });
+        server.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            URI uri = URI.create("http://localhost:" + server.getPort() + "/tenants/alice/events");
+            HttpResponse<String> rejected = client.send(HttpRequest.newBuilder(uri)
+                .POST(HttpRequest.BodyPublishers.ofString("Broken,,tomorrow\n")).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, rejected.statusCode());
+            assertEquals(0, opened.get());
+
+            HttpResponse<String> failed = client.send(HttpRequest.newBuilder(uri)
+                .POST(HttpRequest.BodyPublishers.ofString("Fine,,2099-01-01 09:00\n")).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(500, failed.statusCode());
+            assertEquals(1, opened.get());
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package eventreminder.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class RecurrenceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    @Test
+    void editingACountLimitedSeriesDoesNotLengthenIt() {
+        Recurrence fiveDays = new Recurrence(Recurrence.Frequency.DAILY, 1, START, 5, null, List.of());
+        Event series = new Event(1, "Course", "", START, "Work", false, fiveDays)
+            .advancePast(START)
+            .advancePast(START.plusDays(1));
+        assertEquals(START.plusDays(2), series.getDateTime());
+
+        // Renamed only: the same three occurrences are left
+        Event renamed = series.withDetails("Evening course", "", series.getDateTime(), "Work");
+        assertSame(fiveDays, renamed.getRecurrence());
+        assertEquals(List.of(START.plusDays(2), START.plusDays(3), START.plusDays(4)),
+            renamed.getRecurrence().occurrencesAfter(START.plusDays(1)).collect(Collectors.toList()));
+
+        // Moved to the evening: still three, from the new time on
+        LocalDateTime evening = START.plusDays(2).withHour(18);
+        Event moved = series.withDetails("Course", "", evening, "Work");
+        assertEquals(List.of(evening, evening.plusDays(1), evening.plusDays(2)),
+            moved.getRecurrence().occurrences().collect(Collectors.toList()));
+    }
+
+    @Test
+    void restartingMonthlySeriesCountsOccurrencesFromTheStart() {
+        LocalDateTime end = LocalDateTime.of(2026, 1, 31, 9, 0);
+        Recurrence monthly = new Recurrence(Recurrence.Frequency.MONTHLY, 1, end, 4, null, List.of());
+        // Jan 31, Feb 28, Mar 31, Apr 30: moving from the third leaves two
+        Recurrence moved = monthly.restartedAt(LocalDateTime.of(2026, 3, 31, 9, 0), LocalDateTime.of(2026, 4, 1, 9, 0));
+        assertEquals(2, moved.getCount());
+        // An unlimited series stays unlimited
+        Recurrence daily = Recurrence.every(Recurrence.Frequency.DAILY, START);
+        assertEquals(0, daily.restartedAt(START.plusDays(7), START.plusDays(8)).getCount());
+    }
+}
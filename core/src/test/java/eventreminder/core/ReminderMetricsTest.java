@@ -0,0 +1,73 @@
+package eventreminder.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.consumer.RecordingStream;
+
+import org.junit.jupiter.api.Test;
+
+class ReminderMetricsTest {
+    @Test
+    void instancesInOneJvmRegisterUnderTheirOwnNames() throws Exception {
+        ReminderMetrics first = new ReminderMetrics("first");
+        ReminderMetrics second = new ReminderMetrics("member,2");
+        first.setStoreSize(() -> 3);
+        second.setStoreSize(() -> 5);
+        first.register();
+        second.register();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(3, server.getAttribute(
+                new ObjectName(ReminderMetrics.OBJECT_NAME_PREFIX + "first"), "StoreSize"));
+            assertEquals(5, server.getAttribute(
+                new ObjectName(ReminderMetrics.OBJECT_NAME_PREFIX + ObjectName.quote("member,2")), "StoreSize"));
+        } finally {
+            first.unregister();
+            second.unregister();
+        }
+        assertTrue(ManagementFactory.getPlatformMBeanServer()
+            .queryNames(new ObjectName(ReminderMetrics.OBJECT_NAME_PREFIX + "*"), null).isEmpty());
+    }
+
+    @Test
+    void scansAndStatisticsAreRecordedByJfr() throws Exception {
+        ReminderMetrics metrics = new ReminderMetrics("recorded");
+        metrics.setStoreSize(() -> 42);
+        List<Long> scans = new CopyOnWriteArrayList<>();
+        List<String> statistics = new CopyOnWriteArrayList<>();
+        CountDownLatch recorded = new CountDownLatch(2);
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable("eventreminder.SchedulerScan");
+            stream.enable("eventreminder.ReminderStatistics").withPeriod(Duration.ofMillis(100));
+            stream.onEvent("eventreminder.SchedulerScan", event -> {
+                scans.add(event.getDuration("time").toNanos());
+                recorded.countDown();
+            });
+            stream.onEvent("eventreminder.ReminderStatistics", event -> {
+                statistics.add(event.getString("metrics") + " " + event.getInt("storeSize"));
+                if (statistics.size() == 1) {
+                    recorded.countDown();
+                }
+            });
+            stream.startAsync();
+            metrics.register();
+            try {
+                metrics.schedulerScanned(1500);
+                assertTrue(recorded.await(20, TimeUnit.SECONDS), "scans " + scans + ", statistics " + statistics);
+            } finally {
+                metrics.unregister();
+            }
+        }
+        assertEquals(List.of(1500L), scans);
+        assertEquals("recorded 42", statistics.get(0));
+    }
+}
@@ -0,0 +1,142 @@
+package eventreminder.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ShardedSchedulerTest {
+    private static final String CSV = "title,date\r\nFirst,2099-01-01 09:00\r\nSecond,2099-01-02 09:00\r\n"
+        + "Third,2099-01-03 09:00\r\n";
+
+    @TempDir
+    Path shared;
+
+    @Test
+    void inboxImportLeftHalfDoneIsFinishedWithoutDuplicates() throws Exception {
+        Files.createDirectories(shared.resolve("leases"));
+        EventScheduler<Long> scheduler = new EventScheduler<>("test-scheduler", key -> { });
+        Partition partition = Partition.acquire(0, shared, scheduler);
+        assertNotNull(partition);
+        partition.open();
+        Path directory = shared.resolve("partitions").resolve("000");
+        Files.writeString(directory.resolve("inbox").resolve("events.csv"), CSV);
+        partition.importInbox();
+        assertEquals(3, partition.size());
+
+        // As if the owner had died after saving the events but before deleting
+        // the file: the same file again, under the ids it was given
+        long readAt = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        Files.writeString(directory.resolve("importing").resolve("1-" + readAt + "-events.csv"), CSV);
+        partition.importInbox();
+        assertEquals(3, partition.size());
+
+        // And as if it had died with only the first of a file's events saved
+        Files.writeString(directory.resolve("inbox").resolve("one.csv"), "First,,2099-01-01 09:00\r\n");
+        partition.importInbox();
+        assertEquals(4, partition.size());
+        partition.release();
+        Files.writeString(directory.resolve("importing").resolve("4-" + readAt + "-more.csv"), CSV);
+        Partition next = Partition.acquire(0, shared, scheduler);
+        next.open();
+        next.importInbox();
+        assertEquals(6, next.size());
+        next.release();
+
+        List<String> titles = new ArrayList<>();
+        for (Event event : new EventJournal(directory, 10000).load()) {
+            titles.add(event.getId() + " " + event.getTitle());
+        }
+        titles.sort(null);
+        assertEquals(List.of("1 First", "2 Second", "3 Third", "4 First", "5 Second", "6 Third"), titles);
+        try (Stream<Path> left = Files.list(directory.resolve("importing"))) {
+            assertEquals(0, left.count());
+        }
+    }
+
+    @Test
+    void partitionsOfAKilledProcessAreTakenOverAndEachReminderDeliveredOnce() throws Exception {
+        // Another JVM takes every partition and is then killed outright
+        Path output = Files.createTempFile("member-other", ".log");
+        Process other = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", Paths.get(ShardedScheduler.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    .toString(),
+                ShardedScheduler.class.getName(), "--shared", shared.toString(), "--partitions", "4",
+                "--member", "other")
+            .redirectErrorStream(true)
+            .redirectOutput(output.toFile())
+            .start();
+        try {
+            awaitTrue(() -> Files.readString(output).split("took partition", -1).length - 1 == 4);
+        } finally {
+            other.destroyForcibly();
+            other.waitFor();
+            Files.delete(output);
+        }
+
+        // Reminders that fell due while nobody held the partitions
+        LocalDateTime due = LocalDateTime.now().minusMinutes(1);
+        for (int number = 0; number < 4; number++) {
+            EventJournal journal = new EventJournal(shared.resolve("partitions").resolve(Partition.name(number)), 10000);
+            EventStore store = new EventStore();
+            store.load(journal.load());
+            store.addListener(journal);
+            journal.start(store::snapshot);
+            for (int i = 0; i < 25; i++) {
+                store.add("reminder " + number + "-" + i, "", due, "Work");
+            }
+            journal.close(10, TimeUnit.SECONDS);
+        }
+
+        Map<String, Integer> delivered = new ConcurrentHashMap<>();
+        ShardedScheduler.DeliverySink sink = (key, event) -> delivered.merge(key, 1, Integer::sum);
+        ShardedScheduler first = new ShardedScheduler(shared, 4, "first", sink);
+        first.start();
+        try {
+            awaitTrue(() -> delivered.size() == 100);
+            assertEquals(List.of(0, 1, 2, 3), first.ownedPartitions());
+
+            // A second member takes half, already delivered reminders and all
+            ShardedScheduler second = new ShardedScheduler(shared, 4, "second", sink);
+            second.start();
+            try {
+                awaitTrue(() -> first.ownedPartitions().size() == 2 && second.ownedPartitions().size() == 2);
+            } finally {
+                second.close();
+            }
+            awaitTrue(() -> first.ownedPartitions().size() == 4);
+        } finally {
+            first.close();
+        }
+        assertEquals(100, delivered.size());
+        for (Map.Entry<String, Integer> delivery : delivered.entrySet()) {
+            assertEquals(1, delivery.getValue(), delivery.getKey());
+        }
+    }
+
+    private interface Condition {
+        boolean holds() throws Exception;
+    }
+
+    private static void awaitTrue(Condition condition) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!condition.holds()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package eventreminder.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TenantTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void reminderTheSinkFailsOnIsDeliveredAgain() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        ReminderDaemon.ReminderSink sink = (tenantId, event) -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("sink down");
+            }
+            delivered.add(tenantId + " " + event.getTitle());
+        };
+        Tenant[] tenant = new Tenant[1];
+        EventScheduler<TenantEvent> scheduler = new EventScheduler<>("tenant-test-scheduler",
+            key -> Thread.ofVirtual().start(() -> tenant[0].deliver(key.eventId, sink)));
+        tenant[0] = new Tenant("alice", directory, new ColumnarEventTable(), scheduler, new ReminderMetrics("test"));
+        tenant[0].open();
+        scheduler.start();
+        try {
+            long id = tenant[0].getStore().add("Call", "", LocalDateTime.now().minusMinutes(1), "Work").getId();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (!tenant[0].getStore().get(id).isNotified() && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertTrue(tenant[0].getStore().get(id).isNotified(), "not delivered");
+            assertEquals(2, attempts.get());
+            assertEquals(List.of("alice Call"), delivered);
+        } finally {
+            scheduler.stop();
+            tenant[0].close();
+        }
+    }
+}
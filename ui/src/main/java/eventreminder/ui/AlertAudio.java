@@ -0,0 +1,216 @@
+package eventreminder.ui;
+
+import javax.sound.sampled.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plays alert sounds without holding up startup or each other.
+ *
+ * {@code notification.wav} and any per-category {@code notification-<category>.wav}
+ * files are decoded on a background thread into short 16-bit PCM buffers
+ * (at most three seconds each). Alerts are mixed by one thread into a single
+ * SourceDataLine with a ~40 ms buffer, so overlapping alerts play together
+ * instead of restarting each other, and an alert starts within one buffer of
+ * being requested.
+ *
+ * If there is no audio device, or a file can't be decoded, the affected
+ * sounds are skipped and {@link #play} does nothing.
+ */
+public class AlertAudio {
+    private static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    private static final int CHANNELS = FORMAT.getChannels();
+    private static final int MAX_SAMPLES = 3 * 44100 * CHANNELS;
+    private static final int CHUNK_FRAMES = 441; // 10 ms
+    private static final int LINE_BUFFER_CHUNKS = 4;
+    private static final int MAX_VOICES = 8;
+    private static final String DEFAULT_SOUND = "";
+
+    private final Path soundDirectory;
+    private final Map<String, short[]> sounds = new ConcurrentHashMap<>();
+    private final List<Voice> voices = new ArrayList<>();
+    private final int[] mix = new int[CHUNK_FRAMES * CHANNELS];
+    private final byte[] output = new byte[CHUNK_FRAMES * FORMAT.getFrameSize()];
+    private volatile boolean deviceAvailable = true;
+    private Thread mixer;
+
+    public AlertAudio(Path soundDirectory) {
+        this.soundDirectory = soundDirectory;
+    }
+
+    /** Decodes the sound files on a background thread. */
+    public void loadAsync() {
+        Thread loader = new Thread(this::load, "alert-audio-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /** Decodes the sound files on the calling thread. */
+    public void load() {
+        short[] standard = decode(soundDirectory.resolve("notification.wav"));
+        if (standard == null) {
+            System.out.println("Couldn't load sound file, continuing without sound");
+        } else {
+            sounds.put(DEFAULT_SOUND, standard);
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(soundDirectory, "notification-*.wav")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String category = name.substring("notification-".length(), name.length() - 4);
+                short[] pcm = decode(file);
+                if (pcm != null) {
+                    sounds.put(category.toLowerCase(Locale.ROOT), pcm);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Couldn't list category sounds: " + e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return deviceAvailable && !sounds.isEmpty();
+    }
+
+    /** Starts the category's alert (or the default one) mixed over anything already playing. */
+    public void play(String category) {
+        short[] pcm = category == null ? null : sounds.get(category.toLowerCase(Locale.ROOT));
+        if (pcm == null) {
+            pcm = sounds.get(DEFAULT_SOUND);
+        }
+        if (pcm == null || !deviceAvailable) {
+            return;
+        }
+        synchronized (this) {
+            if (mixer == null) {
+                mixer = new Thread(this::mixLoop, "alert-audio-mixer");
+                mixer.setDaemon(true);
+                mixer.start();
+            }
+            if (voices.size() == MAX_VOICES) {
+                voices.remove(0);
+            }
+            voices.add(new Voice(pcm));
+            notifyAll();
+        }
+    }
+
+    /** Silences everything currently playing. */
+    public synchronized void stop() {
+        voices.clear();
+    }
+
+    private void mixLoop() {
+        SourceDataLine line;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, output.length * LINE_BUFFER_CHUNKS);
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.out.println("No audio device available, continuing without sound");
+            deviceAvailable = false;
+            synchronized (this) {
+                voices.clear();
+            }
+            return;
+        }
+
+        boolean running = false;
+        while (true) {
+            int frames;
+            synchronized (this) {
+                while (voices.isEmpty()) {
+                    if (running) {
+                        // Let the tail play out, then park until the next alert
+                        running = false;
+                        line.drain();
+                        line.stop();
+                    }
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        line.close();
+                        return;
+                    }
+                }
+                frames = mixChunk();
+            }
+            if (!running) {
+                line.start();
+                running = true;
+            }
+            line.write(output, 0, frames * FORMAT.getFrameSize());
+        }
+    }
+
+    // Sums the next chunk of every active voice into the output buffer,
+    // clipping to 16 bits. Returns the number of frames produced.
+    private int mixChunk() {
+        Arrays.fill(mix, 0);
+        int samples = 0;
+        for (int v = voices.size() - 1; v >= 0; v--) {
+            Voice voice = voices.get(v);
+            int count = Math.min(mix.length, voice.pcm.length - voice.position);
+            for (int i = 0; i < count; i++) {
+                mix[i] += voice.pcm[voice.position + i];
+            }
+            voice.position += count;
+            samples = Math.max(samples, count);
+            if (voice.position >= voice.pcm.length) {
+                voices.remove(v);
+            }
+        }
+        for (int i = 0; i < samples; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+            output[2 * i] = (byte) sample;
+            output[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return samples / CHANNELS;
+    }
+
+    // Decodes a sound file into interleaved 16-bit stereo samples at 44.1 kHz,
+    // keeping at most the first three seconds. Returns null if it can't.
+    private static short[] decode(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(file.toFile());
+             AudioInputStream pcm = AudioSystem.getAudioInputStream(FORMAT, source)) {
+            byte[] bytes = readUpTo(pcm, MAX_SAMPLES * 2);
+            short[] samples = new short[bytes.length / 2];
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = (short) ((bytes[2 * i] & 0xff) | (bytes[2 * i + 1] << 8));
+            }
+            return samples;
+        } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException e) {
+            System.out.println("Couldn't decode " + file.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] readUpTo(InputStream in, int limit) throws IOException {
+        byte[] bytes = new byte[limit];
+        int total = 0;
+        int read;
+        while (total < limit && (read = in.read(bytes, total, limit - total)) > 0) {
+            total += read;
+        }
+        return total == limit ? bytes : Arrays.copyOf(bytes, total - total % FORMAT.getFrameSize());
+    }
+
+    private static class Voice {
+        final short[] pcm;
+        int position;
+
+        Voice(short[] pcm) {
+            this.pcm = pcm;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package eventreminder.ui;
+
+import eventreminder.core.CategoryIndex;
+import eventreminder.core.Event;
+import eventreminder.core.ReminderMetrics;
+import java.time.LocalDateTime;
+import java.util.List;
+import javax.swing.AbstractListModel;
+
+/**
+ * List model over a {@link CategoryIndex}. It exposes the selected category's
+ * view directly instead of copying events into a DefaultListModel, so
+ * switching category is constant time and fires a single change event.
+ * Events are listed in time order. Instead of a category the model can show
+ * an agenda, the events due within a time range. Search results narrow
+ * whichever category or agenda is showing. Rebuilds are timed into
+ * {@link ReminderMetrics}, since they hold up the EDT.
+ */
+public class EventListModel extends AbstractListModel<Event> {
+    private final CategoryIndex index = new CategoryIndex();
+    private final ReminderMetrics metrics;
+    private CategoryIndex.View view = index.view(CategoryIndex.ALL);
+    private String category = CategoryIndex.ALL;
+    private LocalDateTime agendaFrom;
+    private LocalDateTime agendaTo;
+    private long[] searchResults;
+
+    public EventListModel(ReminderMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void showCategory(String category) {
+        this.category = category;
+        agendaFrom = null;
+        agendaTo = null;
+        refreshView();
+    }
+
+    /** Shows the events due from {@code from} up to (not including) {@code to}, whatever their category. */
+    public void showAgenda(LocalDateTime from, LocalDateTime to) {
+        agendaFrom = from;
+        agendaTo = to;
+        refreshView();
+    }
+
+    /** Shows only these event ids (sorted ascending), or everything again if null. */
+    public void showSearchResults(long[] ids) {
+        searchResults = ids;
+        refreshView();
+    }
+
+    private void refreshView() {
+        long start = System.nanoTime();
+        int oldSize = view.size();
+        CategoryIndex.View source = agendaFrom != null ? index.range(agendaFrom, agendaTo) : index.view(category);
+        if (searchResults == null) {
+            index.clearSelection();
+            view = source;
+        } else {
+            view = index.select(source, searchResults);
+        }
+        int changed = Math.max(oldSize, view.size());
+        if (changed > 0) {
+            fireContentsChanged(this, 0, changed - 1);
+        }
+        metrics.listRebuilt(searchResults == null ? "category" : "search", view.size(), System.nanoTime() - start);
+    }
+
+    @Override
+    public int getSize() {
+        return view.size();
+    }
+
+    @Override
+    public Event getElementAt(int index) {
+        return view.get(index);
+    }
+
+    /** The row showing this version of the event, or -1. */
+    public int indexOf(Event event) {
+        return view.indexOf(event);
+    }
+
+    public void add(Event event) {
+        index.add(event);
+        int position = view.indexOf(event);
+        if (position >= 0) {
+            fireIntervalAdded(this, position, position);
+        }
+    }
+
+    public void addAll(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        int oldSize = view.size();
+        index.addAll(events);
+        // One change for the whole batch, however the rows interleave; callers
+        // keep their selection with indexOf
+        if (view.size() > oldSize) {
+            fireContentsChanged(this, 0, view.size() - 1);
+        }
+        metrics.listRebuilt("add", view.size(), System.nanoTime() - start);
+    }
+
+    public void update(Event previous, Event current) {
+        int before = view.indexOf(previous);
+        index.update(previous, current);
+        int after = view.indexOf(current);
+        if (before >= 0 && before == after) {
+            fireContentsChanged(this, after, after);
+        } else if (before >= 0 && after >= 0) {
+            // Moved to a new time: out of its old row, into its new one
+            fireIntervalRemoved(this, before, before);
+            fireIntervalAdded(this, after, after);
+        } else if (before >= 0) {
+            fireIntervalRemoved(this, before, before);
+        } else if (after >= 0) {
+            fireIntervalAdded(this, after, after);
+        }
+    }
+
+    public void remove(Event event) {
+        int position = view.indexOf(event);
+        index.remove(event);
+        if (position >= 0) {
+            fireIntervalRemoved(this, position, position);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package eventreminder.ui;
+
+import eventreminder.core.Event;
+import javax.swing.*;
+import javax.swing.plaf.basic.BasicHTML;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Renders one event per row. This runs for every visible cell on every
+ * repaint, so it allocates nothing once warmed up: fonts and colours are
+ * shared constants, and each event's formatted date is cached. Events are
+ * immutable, so an edit brings a new instance and the old cache entry is
+ * simply never hit again.
+ */
+public class EventListRenderer extends JPanel implements ListCellRenderer<Event> {
+    private static final Font TITLE_FONT = new Font("Poppins", Font.BOLD, 16);
+    private static final Font DATE_FONT = new Font("Poppins", Font.PLAIN, 12);
+    private static final Font DESCRIPTION_FONT = new Font("Poppins", Font.PLAIN, 14);
+    private static final Font CATEGORY_FONT = new Font("Poppins", Font.BOLD, 12);
+    private static final Color SELECTED_BACKGROUND = new Color(220, 220, 255);
+    private static final Color DEFAULT_CATEGORY_COLOR = new Color(108, 92, 231);
+    private static final Map<String, Color> CATEGORY_COLORS = new HashMap<>();
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+    private static final int DATE_CACHE_SIZE = 512;
+
+    static {
+        CATEGORY_COLORS.put("Birthday", new Color(253, 121, 168));
+        CATEGORY_COLORS.put("Party", new Color(0, 184, 148));
+        CATEGORY_COLORS.put("Homework", new Color(253, 203, 110));
+        CATEGORY_COLORS.put("Work", new Color(214, 48, 49));
+        CATEGORY_COLORS.put("Meeting", new Color(162, 155, 254));
+    }
+
+    private final JLabel titleLabel = new CellLabel();
+    private final JLabel dateLabel = new CellLabel();
+    private final JLabel descLabel = new CellLabel();
+    private final JLabel categoryLabel = new CellLabel();
+
+    // Least recently used first; keyed by event identity
+    private final Map<Event, String> formattedDates = new LinkedHashMap<Event, String>(DATE_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Event, String> eldest) {
+            return size() > DATE_CACHE_SIZE;
+        }
+    };
+
+    public EventListRenderer() {
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createEmptyBorder(10, 15, 10, 15));
+        setOpaque(true);
+
+        titleLabel.setFont(TITLE_FONT);
+        dateLabel.setFont(DATE_FONT);
+        descLabel.setFont(DESCRIPTION_FONT);
+        categoryLabel.setFont(CATEGORY_FONT);
+
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.add(titleLabel, BorderLayout.WEST);
+        topPanel.add(dateLabel, BorderLayout.EAST);
+
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(descLabel, BorderLayout.WEST);
+        bottomPanel.add(categoryLabel, BorderLayout.EAST);
+
+        add(topPanel, BorderLayout.NORTH);
+        add(bottomPanel, BorderLayout.SOUTH);
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends Event> list, Event event,
+            int index, boolean isSelected, boolean cellHasFocus) {
+
+        titleLabel.setText(event.getTitle());
+        dateLabel.setText(formattedDate(event));
+        descLabel.setText(event.getDescription());
+        categoryLabel.setText(event.getCategory());
+        categoryLabel.setForeground(getCategoryColor(event.getCategory()));
+
+        if (isSelected) {
+            setBackground(SELECTED_BACKGROUND);
+        } else {
+            setBackground(Color.WHITE);
+        }
+
+        return this;
+    }
+
+    private String formattedDate(Event event) {
+        String formatted = formattedDates.get(event);
+        if (formatted == null) {
+            formatted = event.getDateTime().format(DATE_FORMAT);
+            if (event.getRecurrence() != null) {
+                formatted += " (" + event.getRecurrence().describe() + ")";
+            }
+            formattedDates.put(event, formatted);
+        }
+        return formatted;
+    }
+
+    public static Color getCategoryColor(String category) {
+        return CATEGORY_COLORS.getOrDefault(category, DEFAULT_CATEGORY_COLOR);
+    }
+
+    // Renderer labels are only painted through the list's CellRendererPane, so
+    // like DefaultListCellRenderer they skip the repaint requests and property
+    // change events a live label would send. Invalidation still happens, so
+    // the row is laid out again for the new text.
+    private static class CellLabel extends JLabel {
+        @Override
+        protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+            boolean html = getClientProperty(BasicHTML.propertyKey) != null;
+            if (("text".equals(propertyName) && (html || isHtml(newValue)))
+                    || (("font".equals(propertyName) || "foreground".equals(propertyName)) && html)) {
+                super.firePropertyChange(propertyName, oldValue, newValue);
+            }
+        }
+
+        private static boolean isHtml(Object text) {
+            return text instanceof String && BasicHTML.isHTMLString((String) text);
+        }
+
+        @Override
+        public void revalidate() {
+            invalidate();
+        }
+
+        @Override
+        public void repaint(long tm, int x, int y, int width, int height) {
+        }
+
+        @Override
+        public void repaint(Rectangle r) {
+        }
+    }
+}
@@ -0,0 +1,781 @@
+package eventreminder.ui;
+
+import eventreminder.core.Event;
+import eventreminder.core.EventExporter;
+import eventreminder.core.EventImporter;
+import eventreminder.core.EventIngestor;
+import eventreminder.core.EventJournal;
+import eventreminder.core.EventScheduler;
+import eventreminder.core.ScheduleUpdater;
+import eventreminder.core.EventStore;
+import eventreminder.core.IngestionServer;
+import eventreminder.core.Recurrence;
+import eventreminder.core.ReminderMetrics;
+import eventreminder.core.SearchIndex;
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.awt.event.*;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.time.format.DateTimeFormatter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class EventReminderApp {
+    private static final int LOAD_CHUNK = 10000;
+    private static final FileNameExtensionFilter CALENDAR_FILES =
+        new FileNameExtensionFilter("Calendars (.ics, .csv)", "ics", "ical", "csv");
+    // In Recurrence.Frequency order after the first
+    private static final String[] REPEAT_CHOICES = {"Does not repeat", "Daily", "Weekly", "Monthly", "Yearly"};
+
+    private final ReminderMetrics reminderMetrics = new ReminderMetrics("app");
+    private EventStore store = new EventStore();
+    private EventListModel eventListModel = new EventListModel(reminderMetrics);
+    private EventScheduler<Long> notificationScheduler =
+        new EventScheduler<>("event-reminder-scheduler", this::fireReminder, reminderMetrics);
+    private JList<Event> eventList;
+    private volatile boolean soundEnabled = true;
+    private AlertAudio audio = new AlertAudio(Paths.get("."));
+    private NotificationDispatcher notifications = new NotificationDispatcher(1024, 250, 2000, new AlertSound(),
+        reminderMetrics);
+    private FrameTimer listPaintTimer = new FrameTimer("Event list paint");
+    private EventJournal journal = new EventJournal(Paths.get("data"), 50000);
+    private final StartupMetrics startupMetrics;
+    private final List<JComponent> editingControls = new ArrayList<>();
+    private final JLabel statusLabel = new JLabel();
+    private final SearchIndex searchIndex = new SearchIndex();
+    // One query at a time; typing quickly supersedes queries that haven't run yet
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "event-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong searchGeneration = new AtomicLong();
+    private Future<?> pendingSearch;
+    private String searchQuery = "";
+    private boolean loaded;
+    // Loopback port for other programs to add events on, or -1 for none
+    private int ingestPort = -1;
+    private volatile EventIngestor ingestor;
+
+    public static void main(String[] args) {
+        StartupMetrics metrics = new StartupMetrics();
+        EventReminderApp app = new EventReminderApp(metrics);
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--ingest-port") && i + 1 < args.length) {
+                app.ingestPort = Integer.parseInt(args[++i]);
+            }
+        }
+        // Slow startup work runs in the background while the EDT builds the window
+        app.startBackgroundLoading();
+        SwingUtilities.invokeLater(app::createAndShowGUI);
+    }
+
+    public EventReminderApp(StartupMetrics metrics) {
+        this.startupMetrics = metrics;
+    }
+
+    private void createAndShowGUI() {
+        // Main frame setup
+        JFrame frame = new JFrame("Enhanced Event Reminder");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                startupMetrics.firstFrameShown();
+            }
+        });
+        frame.setSize(900, 780);
+        frame.setLayout(new BorderLayout());
+        frame.getContentPane().setBackground(new Color(240, 240, 245));
+
+        // Header panel
+        JPanel headerPanel = new JPanel();
+        headerPanel.setBackground(new Color(108, 92, 231));
+        headerPanel.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+        headerPanel.setLayout(new BorderLayout());
+
+        JLabel titleLabel = new JLabel("Enhanced Event Reminder");
+        titleLabel.setFont(new Font("Poppins", Font.BOLD, 24));
+        titleLabel.setForeground(Color.WHITE);
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+
+        statusLabel.setForeground(Color.WHITE);
+        statusLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        headerPanel.add(statusLabel, BorderLayout.CENTER);
+
+        JButton addButton = new JButton("Add Event");
+        addButton.setFont(new Font("Poppins", Font.BOLD, 14));
+        addButton.setBackground(new Color(253, 121, 168));
+        addButton.setForeground(Color.WHITE);
+        addButton.setFocusPainted(false);
+        addButton.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        addButton.addActionListener(e -> showAddEventDialog(frame, null));
+        headerPanel.add(addButton, BorderLayout.EAST);
+        editingControls.add(addButton);
+
+        frame.add(headerPanel, BorderLayout.NORTH);
+
+        // Quick add panel
+        JPanel quickAddPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
+        quickAddPanel.setBackground(new Color(230, 230, 240));
+        quickAddPanel.setBorder(BorderFactory.createEmptyBorder(10, 15, 10, 15));
+
+        String[] quickEvents = {"Birthday", "Party", "Homework"};
+        Color[] quickColors = {new Color(253, 121, 168), new Color(0, 184, 148), new Color(253, 203, 110)};
+        
+        for (int i = 0; i < quickEvents.length; i++) {
+            final String eventName = quickEvents[i];
+            JButton quickButton = new JButton("Quick Add: " + eventName);
+            quickButton.setBackground(quickColors[i]);
+            quickButton.setForeground(Color.WHITE);
+            quickButton.setFocusPainted(false);
+            quickButton.addActionListener(e -> addQuickEvent(eventName, frame));
+            editingControls.add(quickButton);
+            quickAddPanel.add(quickButton);
+        }
+
+        frame.add(quickAddPanel, BorderLayout.SOUTH);
+
+        // Main content panel
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        // Event list
+        eventList = new JList<>(eventListModel) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                long start = System.nanoTime();
+                super.paintComponent(g);
+                listPaintTimer.record(System.nanoTime() - start);
+            }
+        };
+        eventList.setCellRenderer(new EventListRenderer());
+        eventList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // A prototype row fixes the cell size so JList never measures every row
+        eventList.setPrototypeCellValue(new Event(0, "Prototype event title", "Prototype event description",
+            LocalDateTime.now(), "Birthday"));
+        eventList.setFixedCellHeight(80);
+        eventList.setBackground(new Color(250, 250, 255));
+
+        // Add right-click menu for editing/deleting
+        JPopupMenu popupMenu = new JPopupMenu();
+        JMenuItem editItem = new JMenuItem("Edit Event");
+        editItem.addActionListener(e -> editSelectedEvent(frame));
+        JMenuItem skipItem = new JMenuItem("Skip Next Occurrence");
+        skipItem.addActionListener(e -> skipSelectedOccurrence());
+        JMenuItem deleteItem = new JMenuItem("Delete Event");
+        deleteItem.addActionListener(e -> deleteSelectedEvent());
+        popupMenu.add(editItem);
+        popupMenu.add(skipItem);
+        popupMenu.add(deleteItem);
+        popupMenu.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                Event selected = eventList.getSelectedValue();
+                skipItem.setEnabled(selected != null && selected.getRecurrence() != null && !selected.isNotified());
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+            }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) {
+            }
+        });
+        
+        eventList.setComponentPopupMenu(popupMenu);
+        eventList.addMouseListener(new MouseAdapter() {
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    editSelectedEvent(frame);
+                }
+            }
+        });
+
+        JScrollPane scrollPane = new JScrollPane(eventList);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+
+        // Search box above the list; results narrow the selected category
+        JPanel searchPanel = new JPanel(new BorderLayout(10, 0));
+        searchPanel.setOpaque(false);
+        searchPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
+        JLabel searchLabel = new JLabel("Search:");
+        searchLabel.setFont(new Font("Poppins", Font.BOLD, 14));
+        JTextField searchField = new JTextField();
+        searchField.setFont(new Font("Poppins", Font.PLAIN, 14));
+        searchField.setToolTipText("Find events by words in their title or description");
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                search(searchField.getText());
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                search(searchField.getText());
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+        searchPanel.add(searchLabel, BorderLayout.WEST);
+        searchPanel.add(searchField, BorderLayout.CENTER);
+
+        // Sidebar with categories and settings
+        JPanel sidebarPanel = new JPanel();
+        sidebarPanel.setLayout(new BoxLayout(sidebarPanel, BoxLayout.Y_AXIS));
+        sidebarPanel.setBackground(new Color(230, 230, 240));
+        sidebarPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        sidebarPanel.setPreferredSize(new Dimension(200, 0));
+
+        JLabel categoryLabel = new JLabel("Categories");
+        categoryLabel.setFont(new Font("Poppins", Font.BOLD, 16));
+        categoryLabel.setForeground(new Color(108, 92, 231));
+        sidebarPanel.add(categoryLabel);
+        sidebarPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+
+        String[] categories = {"All", "Birthday", "Party", "Homework", "Work", "Meeting"};
+        for (String category : categories) {
+            JButton categoryButton = new JButton(category);
+            categoryButton.setFont(new Font("Poppins", Font.PLAIN, 14));
+            categoryButton.setAlignmentX(Component.LEFT_ALIGNMENT);
+            categoryButton.setBackground(Color.WHITE);
+            categoryButton.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
+            categoryButton.addActionListener(e -> filterEvents(category));
+            sidebarPanel.add(categoryButton);
+            sidebarPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        }
+
+        // Agenda: what is coming up, across all categories
+        sidebarPanel.add(Box.createRigidArea(new Dimension(0, 20)));
+        JLabel agendaLabel = new JLabel("Agenda");
+        agendaLabel.setFont(new Font("Poppins", Font.BOLD, 16));
+        agendaLabel.setForeground(new Color(108, 92, 231));
+        sidebarPanel.add(agendaLabel);
+        sidebarPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+
+        String[] agendas = {"Next 24 Hours", "This Week"};
+        for (String agenda : agendas) {
+            JButton agendaButton = new JButton(agenda);
+            agendaButton.setFont(new Font("Poppins", Font.PLAIN, 14));
+            agendaButton.setAlignmentX(Component.LEFT_ALIGNMENT);
+            agendaButton.setBackground(Color.WHITE);
+            agendaButton.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
+            agendaButton.addActionListener(e -> showAgenda(agenda));
+            sidebarPanel.add(agendaButton);
+            sidebarPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        }
+
+        // Settings section
+        sidebarPanel.add(Box.createRigidArea(new Dimension(0, 20)));
+        JLabel settingsLabel = new JLabel("Settings");
+        settingsLabel.setFont(new Font("Poppins", Font.BOLD, 16));
+        settingsLabel.setForeground(new Color(108, 92, 231));
+        sidebarPanel.add(settingsLabel);
+        sidebarPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+
+        JCheckBox soundCheckbox = new JCheckBox("Enable Sound", soundEnabled);
+        soundCheckbox.addActionListener(e -> soundEnabled = soundCheckbox.isSelected());
+        sidebarPanel.add(soundCheckbox);
+        sidebarPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+
+        JButton importButton = new JButton("Import...");
+        JButton exportButton = new JButton("Export...");
+        for (JButton button : new JButton[] {importButton, exportButton}) {
+            button.setFont(new Font("Poppins", Font.PLAIN, 14));
+            button.setAlignmentX(Component.LEFT_ALIGNMENT);
+            editingControls.add(button);
+            sidebarPanel.add(button);
+            sidebarPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        }
+        importButton.addActionListener(e -> importEvents(frame, importButton, exportButton));
+        exportButton.addActionListener(e -> exportEvents(frame, importButton, exportButton));
+
+        mainPanel.add(sidebarPanel, BorderLayout.WEST);
+        mainPanel.add(searchPanel, BorderLayout.NORTH);
+        mainPanel.add(scrollPane, BorderLayout.CENTER);
+
+        frame.add(mainPanel, BorderLayout.CENTER);
+
+        // Adding waits until saved events (and their ids) are loaded
+        for (JComponent control : editingControls) {
+            control.setEnabled(loaded);
+        }
+        statusLabel.setText(loaded ? "" : "Loading events...");
+
+        frame.setVisible(true);
+    }
+
+    private void startBackgroundLoading() {
+        // Decode alert sounds off the startup path
+        audio.loadAsync();
+        reminderMetrics.setStoreSize(store::size);
+        reminderMetrics.register();
+
+        store.addListener(searchIndex);
+        store.addListener(new ListModelUpdater());
+        store.addListener(new ScheduleUpdater<>(notificationScheduler, Long::valueOf));
+        startNotificationChecker();
+
+        Thread loader = new Thread(this::loadSavedEvents, "event-store-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Runs on the loader thread. Events are handed to the store in chunks so the
+    // list fills in progressively while the window is already usable.
+    private void loadSavedEvents() {
+        try {
+            List<Event> saved = journal.load();
+            store.addListener(journal);
+            for (int start = 0; start < saved.size(); start += LOAD_CHUNK) {
+                store.load(saved.subList(start, Math.min(saved.size(), start + LOAD_CHUNK)));
+            }
+            // The writer starts only once the store is complete, so a compaction
+            // can never snapshot a partly loaded store
+            journal.start(store::snapshot);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    EventIngestor running = ingestor;
+                    if (running != null) {
+                        running.close();
+                    }
+                    journal.close(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Couldn't load saved events, changes will not be saved: " + e.getMessage());
+            SwingUtilities.invokeLater(this::loadingFinished);
+            return;
+        }
+        try {
+            startIngestion();
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Couldn't accept events on port " + ingestPort + ": " + e.getMessage());
+        }
+        SwingUtilities.invokeLater(this::loadingFinished);
+    }
+
+    // Ids are only handed out once the saved events are loaded, so this waits for that too
+    private void startIngestion() throws IOException {
+        if (ingestPort < 0) {
+            return;
+        }
+        EventIngestor starting = new EventIngestor(store, journal);
+        // Bound before the ingestor starts, so a port in use leaves nothing running
+        IngestionServer server = new IngestionServer(ingestPort, tenantId -> tenantId == null ? starting : null);
+        starting.start();
+        ingestor = starting;
+        server.start();
+        System.out.println("Accepting events on http://localhost:" + server.getPort() + "/events");
+    }
+
+    private void loadingFinished() {
+        loaded = true;
+        for (JComponent control : editingControls) {
+            control.setEnabled(true);
+        }
+        statusLabel.setText("");
+        startupMetrics.interactive(store.size());
+    }
+
+    private void addQuickEvent(String type, JFrame parent) {
+        String title = "";
+        String description = "";
+        LocalDateTime defaultTime = LocalDateTime.now().plusHours(1);
+
+        switch (type) {
+            case "Birthday":
+                title = "Birthday Party";
+                description = "Don't forget the cake and gifts!";
+                break;
+            case "Party":
+                title = "Friends Gathering";
+                description = "Bring snacks and drinks!";
+                break;
+            case "Homework":
+                title = "Homework Deadline";
+                description = "Finish and submit before deadline";
+                defaultTime = LocalDateTime.now().plusDays(1);
+                break;
+        }
+
+        // Birthdays come round every year, so one event covers all of them
+        Recurrence recurrence = type.equals("Birthday")
+            ? Recurrence.every(Recurrence.Frequency.YEARLY, defaultTime) : null;
+        store.add(title, description, defaultTime, type, recurrence);
+        JOptionPane.showMessageDialog(parent, "Quick event added: " + type);
+    }
+
+    // Imports on a background thread; the list fills in batch by batch
+    private void importEvents(JFrame parent, JButton... buttons) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(CALENDAR_FILES);
+        if (chooser.showOpenDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        setEnabled(buttons, false);
+        statusLabel.setText("Importing " + file.getFileName() + "...");
+        Thread importer = new Thread(() -> {
+            try {
+                EventImporter.Result result = new EventImporter(store).importFile(file,
+                    (bytesRead, totalBytes, imported) -> SwingUtilities.invokeLater(() ->
+                        statusLabel.setText(String.format("Importing... %d%% (%,d events)",
+                            totalBytes == 0 ? 100 : Math.min(100, bytesRead * 100 / totalBytes), imported))));
+                String message = String.format("Imported %,d events from %s", result.getImported(), file.getFileName());
+                if (result.getSkipped() > 0) {
+                    message += String.format("%nSkipped %,d records that couldn't be read, the first because: %s",
+                        result.getSkipped(), result.getFirstError());
+                }
+                String summary = message;
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(parent, summary));
+            } catch (IOException | RuntimeException e) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(parent,
+                    "Couldn't import " + file.getFileName() + ": " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                SwingUtilities.invokeLater(() -> {
+                    statusLabel.setText("");
+                    setEnabled(buttons, true);
+                });
+            }
+        }, "event-import");
+        importer.setDaemon(true);
+        importer.start();
+    }
+
+    private void exportEvents(JFrame parent, JButton... buttons) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(CALENDAR_FILES);
+        chooser.setSelectedFile(new File("events.ics"));
+        if (chooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        setEnabled(buttons, false);
+        statusLabel.setText("Exporting to " + file.getFileName() + "...");
+        Thread exporter = new Thread(() -> {
+            try {
+                int count = EventExporter.export(store, file);
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(parent,
+                    String.format("Exported %,d events to %s", count, file.getFileName())));
+            } catch (IOException | RuntimeException e) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(parent,
+                    "Couldn't export to " + file.getFileName() + ": " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+            } finally {
+                SwingUtilities.invokeLater(() -> {
+                    statusLabel.setText("");
+                    setEnabled(buttons, true);
+                });
+            }
+        }, "event-export");
+        exporter.setDaemon(true);
+        exporter.start();
+    }
+
+    private static void setEnabled(JButton[] buttons, boolean enabled) {
+        for (JButton button : buttons) {
+            button.setEnabled(enabled);
+        }
+    }
+
+    private void editSelectedEvent(JFrame parent) {
+        Event selected = eventList.getSelectedValue();
+        if (selected != null) {
+            showAddEventDialog(parent, selected);
+        }
+    }
+
+    private void skipSelectedOccurrence() {
+        Event selected = eventList.getSelectedValue();
+        if (selected != null) {
+            store.update(selected.getId(), Event::skipOccurrence);
+        }
+    }
+
+    private void deleteSelectedEvent() {
+        Event selected = eventList.getSelectedValue();
+        if (selected != null) {
+            store.remove(selected.getId());
+        }
+    }
+
+    private void showAddEventDialog(JFrame parent, Event eventToEdit) {
+        JDialog dialog = new JDialog(parent, eventToEdit == null ? "Add New Event" : "Edit Event", true);
+        dialog.setSize(400, 520);
+        dialog.setLayout(new BorderLayout());
+        dialog.setLocationRelativeTo(parent);
+
+        JPanel formPanel = new JPanel();
+        formPanel.setLayout(new BoxLayout(formPanel, BoxLayout.Y_AXIS));
+        formPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JLabel titleLabel = new JLabel("Event Title:");
+        titleLabel.setFont(new Font("Poppins", Font.BOLD, 14));
+        JTextField titleField = new JTextField();
+        titleField.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+
+        JLabel descLabel = new JLabel("Description:");
+        descLabel.setFont(new Font("Poppins", Font.BOLD, 14));
+        JTextArea descArea = new JTextArea(3, 20);
+        descArea.setLineWrap(true);
+        JScrollPane descScroll = new JScrollPane(descArea);
+
+        JLabel dateLabel = new JLabel("Date & Time:");
+        dateLabel.setFont(new Font("Poppins", Font.BOLD, 14));
+        JTextField dateField = new JTextField();
+        dateField.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        dateField.setText(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+
+        JLabel categoryLabel = new JLabel("Category:");
+        categoryLabel.setFont(new Font("Poppins", Font.BOLD, 14));
+        String[] categories = {"Birthday", "Party", "Homework", "Work", "Meeting", "Other"};
+        JComboBox<String> categoryCombo = new JComboBox<>(categories);
+
+        JLabel repeatLabel = new JLabel("Repeat:");
+        repeatLabel.setFont(new Font("Poppins", Font.BOLD, 14));
+        JComboBox<String> repeatCombo = new JComboBox<>(REPEAT_CHOICES);
+
+        // If editing, populate fields
+        if (eventToEdit != null) {
+            titleField.setText(eventToEdit.getTitle());
+            descArea.setText(eventToEdit.getDescription());
+            dateField.setText(eventToEdit.getDateTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+            categoryCombo.setSelectedItem(eventToEdit.getCategory());
+            Recurrence recurrence = eventToEdit.getRecurrence();
+            repeatCombo.setSelectedIndex(recurrence == null ? 0 : recurrence.getFrequency().ordinal() + 1);
+        }
+
+        formPanel.add(titleLabel);
+        formPanel.add(Box.createRigidArea(new Dimension(0, 5)));
+        formPanel.add(titleField);
+        formPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+        formPanel.add(descLabel);
+        formPanel.add(Box.createRigidArea(new Dimension(0, 5)));
+        formPanel.add(descScroll);
+        formPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+        formPanel.add(dateLabel);
+        formPanel.add(Box.createRigidArea(new Dimension(0, 5)));
+        formPanel.add(dateField);
+        formPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+        formPanel.add(categoryLabel);
+        formPanel.add(Box.createRigidArea(new Dimension(0, 5)));
+        formPanel.add(categoryCombo);
+        formPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+        formPanel.add(repeatLabel);
+        formPanel.add(Box.createRigidArea(new Dimension(0, 5)));
+        formPanel.add(repeatCombo);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.addActionListener(e -> dialog.dispose());
+        JButton saveButton = new JButton(eventToEdit == null ? "Save" : "Update");
+        saveButton.setBackground(new Color(108, 92, 231));
+        saveButton.setForeground(Color.WHITE);
+        saveButton.addActionListener(e -> {
+            try {
+                String title = titleField.getText();
+                String description = descArea.getText();
+                LocalDateTime dateTime = LocalDateTime.parse(dateField.getText(), 
+                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+                String category = (String) categoryCombo.getSelectedItem();
+                int repeat = repeatCombo.getSelectedIndex();
+
+                if (eventToEdit == null) {
+                    store.add(title, description, dateTime, category, repeatRule(null, repeat, dateTime));
+                } else {
+                    store.update(eventToEdit.getId(), current -> {
+                        // The dialog shows whole minutes; left as shown, the time and series stay as they were
+                        LocalDateTime time = dateTime.equals(current.getDateTime().truncatedTo(ChronoUnit.MINUTES))
+                            ? current.getDateTime() : dateTime;
+                        return current.withDetails(title, description, time, category,
+                            repeatRule(current, repeat, time));
+                    });
+                }
+                dialog.dispose();
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(dialog, "Invalid date format. Please use yyyy-MM-dd HH:mm", 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+
+        buttonPanel.add(cancelButton);
+        buttonPanel.add(saveButton);
+
+        dialog.add(formPanel, BorderLayout.CENTER);
+        dialog.add(buttonPanel, BorderLayout.SOUTH);
+        dialog.setVisible(true);
+    }
+
+    // Keeps an existing rule (interval, end, exceptions, what is left of a count)
+    // if at most the start moved; choosing a different frequency starts a plain
+    // new series
+    private static Recurrence repeatRule(Event current, int repeat, LocalDateTime start) {
+        if (repeat == 0) {
+            return null;
+        }
+        Recurrence.Frequency frequency = Recurrence.Frequency.values()[repeat - 1];
+        Recurrence existing = current == null ? null : current.getRecurrence();
+        if (existing != null && existing.getFrequency() == frequency) {
+            return start.equals(current.getDateTime()) ? existing : existing.restartedAt(current.getDateTime(), start);
+        }
+        return Recurrence.every(frequency, start);
+    }
+
+    private void filterEvents(String category) {
+        eventList.clearSelection();
+        eventListModel.showCategory(category);
+    }
+
+    // The range is fixed when chosen; choosing it again moves it on to now
+    private void showAgenda(String agenda) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime end = agenda.equals("This Week")
+            ? now.toLocalDate().with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atStartOfDay()
+            : now.plusHours(24);
+        eventList.clearSelection();
+        eventListModel.showAgenda(now, end);
+    }
+
+    // Called on the EDT as the user types
+    private void search(String query) {
+        eventList.clearSelection();
+        searchQuery = query.trim();
+        runSearch();
+    }
+
+    // Runs the current query off the EDT. Anything still queued is cancelled,
+    // and results that come back after a newer query was started are dropped.
+    private void runSearch() {
+        long generation = searchGeneration.incrementAndGet();
+        if (pendingSearch != null) {
+            pendingSearch.cancel(false);
+        }
+        if (searchQuery.isEmpty()) {
+            pendingSearch = null;
+            eventListModel.showSearchResults(null);
+            return;
+        }
+        String query = searchQuery;
+        pendingSearch = searchExecutor.submit(() -> {
+            if (generation != searchGeneration.get()) {
+                return;
+            }
+            long[] ids = searchIndex.search(query);
+            SwingUtilities.invokeLater(() -> {
+                if (generation == searchGeneration.get()) {
+                    eventListModel.showSearchResults(ids);
+                }
+            });
+        });
+    }
+
+    // Edits to events already in the results show up through the model; new
+    // or re-worded events need the query run again
+    private void refreshSearch() {
+        if (!searchQuery.isEmpty()) {
+            runSearch();
+        }
+    }
+
+    private void startNotificationChecker() {
+        notificationScheduler.start();
+    }
+
+    // Called on the scheduler thread when an event reaches its due time
+    private void fireReminder(long id) {
+        Event event = store.claimDue(id, LocalDateTime.now());
+        if (event == null) {
+            return;
+        }
+        notifications.submit(event);
+    }
+
+    private class AlertSound implements NotificationDispatcher.Sound {
+        @Override
+        public void play(Event event) {
+            if (soundEnabled) {
+                audio.play(event.getCategory());
+            }
+        }
+
+        @Override
+        public void stop() {
+            audio.stop();
+        }
+    }
+
+    // Mirrors store changes into the list model on the EDT, in the order they happened
+    private class ListModelUpdater implements EventStore.Listener {
+        @Override
+        public void eventAdded(Event event) {
+            SwingUtilities.invokeLater(() -> {
+                eventListModel.add(event);
+                refreshSearch();
+            });
+        }
+
+        @Override
+        public void eventUpdated(Event previous, Event current) {
+            boolean reworded = !Objects.equals(previous.getTitle(), current.getTitle())
+                || !Objects.equals(previous.getDescription(), current.getDescription());
+            SwingUtilities.invokeLater(() -> {
+                eventListModel.update(previous, current);
+                if (reworded) {
+                    refreshSearch();
+                }
+            });
+        }
+
+        @Override
+        public void eventRemoved(Event event) {
+            SwingUtilities.invokeLater(() -> eventListModel.remove(event));
+        }
+
+        @Override
+        public void eventsAdded(List<Event> events) {
+            eventsLoaded(events);
+        }
+
+        @Override
+        public void eventsLoaded(List<Event> events) {
+            SwingUtilities.invokeLater(() -> {
+                // The batch is announced as one change, which leaves the
+                // selection on its old row; move it with its event
+                Event selected = eventList.getSelectedValue();
+                eventListModel.addAll(events);
+                if (selected != null) {
+                    int row = eventListModel.indexOf(selected);
+                    if (row >= 0 && row != eventList.getSelectedIndex()) {
+                        eventList.setSelectedIndex(row);
+                    }
+                }
+                refreshSearch();
+            });
+        }
+    }
+}
\ No newline at end of file
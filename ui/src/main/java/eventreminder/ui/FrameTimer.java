@@ -0,0 +1,46 @@
+package eventreminder.ui;
+
+/**
+ * Measures how long a repeatedly painted component takes to paint against a
+ * one-frame budget (60 fps). Paints over budget are logged when the
+ * {@code eventreminder.frameStats} system property is set.
+ *
+ * Only used on the EDT, so it needs no synchronisation.
+ */
+public class FrameTimer {
+    public static final long FRAME_BUDGET_NANOS = 16_666_667L;
+
+    private static final boolean LOG_SLOW_FRAMES = Boolean.getBoolean("eventreminder.frameStats");
+
+    private final String name;
+    private long frames;
+    private long slowFrames;
+    private long totalNanos;
+    private long worstNanos;
+
+    public FrameTimer(String name) {
+        this.name = name;
+    }
+
+    public void record(long nanos) {
+        frames++;
+        totalNanos += nanos;
+        worstNanos = Math.max(worstNanos, nanos);
+        if (nanos > FRAME_BUDGET_NANOS) {
+            slowFrames++;
+            if (LOG_SLOW_FRAMES) {
+                System.out.println(name + " took " + nanos / 1_000_000 + " ms (" + summary() + ")");
+            }
+        }
+    }
+
+    public long getFrames() { return frames; }
+    public long getSlowFrames() { return slowFrames; }
+    public long getWorstNanos() { return worstNanos; }
+
+    public String summary() {
+        long average = frames == 0 ? 0 : totalNanos / frames;
+        return frames + " frames, " + slowFrames + " over budget, average "
+            + average / 1000 + " us, worst " + worstNanos / 1000 + " us";
+    }
+}
@@ -0,0 +1,177 @@
+package eventreminder.ui;
+
+import eventreminder.core.Event;
+import eventreminder.core.ReminderMetrics;
+import javax.swing.*;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns due events into user notifications. Events that fall due close
+ * together are collected for a short window and shown as one grouped
+ * notification, at most one notification per {@code minIntervalMillis}.
+ *
+ * One tray icon and one scheduler thread are reused for everything. The queue
+ * is bounded: when it is full, {@link #submit} makes the caller wait briefly
+ * and then just counts the event, so a flood of due events still shows up as
+ * "and N more" instead of piling up threads or memory.
+ *
+ * Each event shown is reported to {@link ReminderMetrics} with how late it
+ * was; events only counted as "more" are not.
+ */
+public class NotificationDispatcher {
+    /** Plays and stops the alert sound; called on the dispatcher thread. */
+    public interface Sound {
+        void play(Event event);
+        void stop();
+    }
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int MAX_LISTED = 5;
+    private static final long SOUND_MILLIS = 3000;
+
+    private final BlockingQueue<Event> queue;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "event-reminder-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicInteger overflow = new AtomicInteger();
+    private final long coalesceMillis;
+    private final long minIntervalMillis;
+    private final Sound sound;
+    private final ReminderMetrics metrics;
+    private volatile long lastFlushMillis;
+    private int soundGeneration;
+    private TrayIcon trayIcon;
+    private boolean trayUnavailable;
+
+    public NotificationDispatcher(int capacity, long coalesceMillis, long minIntervalMillis, Sound sound,
+            ReminderMetrics metrics) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.coalesceMillis = coalesceMillis;
+        this.minIntervalMillis = minIntervalMillis;
+        this.sound = sound;
+        this.metrics = metrics;
+    }
+
+    public void submit(Event event) {
+        boolean queued;
+        try {
+            queued = queue.offer(event, 50, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            overflow.incrementAndGet();
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            long sinceLast = System.currentTimeMillis() - lastFlushMillis;
+            long delay = Math.max(coalesceMillis, minIntervalMillis - sinceLast);
+            executor.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        SwingUtilities.invokeLater(() -> {
+            if (trayIcon != null) {
+                SystemTray.getSystemTray().remove(trayIcon);
+                trayIcon = null;
+            }
+        });
+    }
+
+    private void flush() {
+        // Cleared before draining: anything submitted from here on schedules the next flush
+        flushScheduled.set(false);
+        List<Event> due = new ArrayList<>();
+        queue.drainTo(due);
+        int dropped = overflow.getAndSet(0);
+        if (due.isEmpty() && dropped == 0) {
+            return;
+        }
+        lastFlushMillis = System.currentTimeMillis();
+
+        if (sound != null && !due.isEmpty()) {
+            try {
+                sound.play(due.get(0));
+                int generation = ++soundGeneration;
+                executor.schedule(() -> {
+                    // Leave a newer alert playing
+                    if (generation == soundGeneration) {
+                        sound.stop();
+                    }
+                }, SOUND_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                System.out.println("Error playing sound");
+            }
+        }
+        SwingUtilities.invokeLater(() -> show(due, dropped));
+    }
+
+    private void show(List<Event> due, int dropped) {
+        String title;
+        String message;
+        if (due.size() == 1 && dropped == 0) {
+            Event event = due.get(0);
+            title = "Event Reminder: " + event.getTitle();
+            message = event.getDescription() + "\nTime: " + event.getDateTime().format(TIME_FORMAT);
+        } else {
+            int total = due.size() + dropped;
+            title = "Event Reminder: " + total + " events due";
+            StringBuilder lines = new StringBuilder();
+            for (int i = 0; i < due.size() && i < MAX_LISTED; i++) {
+                Event event = due.get(i);
+                lines.append(event.getTitle()).append(" (")
+                    .append(event.getDateTime().format(TIME_FORMAT)).append(")\n");
+            }
+            int listed = Math.min(due.size(), MAX_LISTED);
+            if (total > listed) {
+                lines.append("and ").append(total - listed).append(" more");
+            }
+            message = lines.toString().trim();
+        }
+
+        // Recorded before showing, as a dialog blocks until dismissed
+        for (Event event : due) {
+            metrics.reminderDelivered(event);
+        }
+        metrics.notificationShown();
+        TrayIcon icon = trayIcon();
+        if (icon != null) {
+            icon.displayMessage(title, message, TrayIcon.MessageType.INFO);
+        } else {
+            JOptionPane.showMessageDialog(null, title + "\n" + message,
+                "Event Reminder", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    // Created once on first use and left in the tray; null if there is no tray
+    private TrayIcon trayIcon() {
+        if (trayIcon == null && !trayUnavailable && SystemTray.isSupported()) {
+            try {
+                Image image = Toolkit.getDefaultToolkit().createImage("icon.png");
+                TrayIcon icon = new TrayIcon(image, "Event Reminder");
+                icon.setImageAutoSize(true);
+                SystemTray.getSystemTray().add(icon);
+                trayIcon = icon;
+            } catch (Exception e) {
+                System.out.println("Couldn't add tray icon, falling back to dialogs");
+                trayUnavailable = true;
+            }
+        }
+        return trayIcon;
+    }
+}
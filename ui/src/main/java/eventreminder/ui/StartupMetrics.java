@@ -0,0 +1,43 @@
+package eventreminder.ui;
+
+/**
+ * Startup timings, measured from the start of {@code main}: time to first
+ * frame (the window has been shown) and time to interactive (saved events
+ * are loaded and editing is enabled). Reported once both are known.
+ */
+public class StartupMetrics {
+    private final long startNanos = System.nanoTime();
+    private volatile long firstFrameNanos = -1;
+    private volatile long interactiveNanos = -1;
+    private volatile int eventCount;
+    private boolean reported;
+
+    public void firstFrameShown() {
+        firstFrameNanos = System.nanoTime() - startNanos;
+        report();
+    }
+
+    public void interactive(int eventCount) {
+        this.eventCount = eventCount;
+        interactiveNanos = System.nanoTime() - startNanos;
+        report();
+    }
+
+    public long getTimeToFirstFrameMillis() {
+        return firstFrameNanos < 0 ? -1 : firstFrameNanos / 1_000_000;
+    }
+
+    public long getTimeToInteractiveMillis() {
+        return interactiveNanos < 0 ? -1 : interactiveNanos / 1_000_000;
+    }
+
+    private synchronized void report() {
+        if (reported || firstFrameNanos < 0 || interactiveNanos < 0) {
+            return;
+        }
+        reported = true;
+        System.out.println("Startup: first frame after " + getTimeToFirstFrameMillis()
+            + " ms, interactive after " + getTimeToInteractiveMillis()
+            + " ms (" + eventCount + " saved events)");
+    }
+}